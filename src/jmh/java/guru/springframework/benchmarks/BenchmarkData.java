@@ -0,0 +1,83 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.Vendor;
+import guru.springframework.domain.VendorSummary;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Entities and repository stand-ins shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2018-03-01T10:15:30Z");
+
+    private BenchmarkData() {
+    }
+
+    static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setFirstname("Firstname" + id);
+        customer.setLastname("Lastname" + id);
+        customer.setVersion(0L);
+        customer.setLastModified(LAST_MODIFIED);
+        return customer;
+    }
+
+    static Vendor vendor(long id) {
+        Vendor vendor = new Vendor();
+        vendor.setId(id);
+        vendor.setName("Vendor " + id);
+        vendor.setVersion(0L);
+        vendor.setLastModified(LAST_MODIFIED);
+        return vendor;
+    }
+
+    static CustomerSummary customerSummary(long id) {
+        return new CustomerSummary(id, "Firstname" + id, "Lastname" + id);
+    }
+
+    static VendorSummary vendorSummary(long id) {
+        return new VendorSummary(id, "Vendor " + id);
+    }
+
+    static Category category(long id) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("Category " + id);
+        category.setVersion(0L);
+        category.setLastModified(LAST_MODIFIED);
+        return category;
+    }
+
+    static <T> List<T> list(int size, LongFunction<T> factory) {
+        List<T> list = new ArrayList<>(size);
+        for(long id = 1; id <= size; id++) {
+            list.add(factory.apply(id));
+        }
+        return list;
+    }
+
+    /**
+     * A repository whose findAll() / findAllSummaries() return the given rows, so a service can be measured without
+     * a database (or mocking framework) in the way. Any other repository method fails.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R findAllRepository(Class<R> repositoryType, List<?> rows) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if(method.getName().startsWith("findAll") && method.getParameterCount() == 0) {
+                        return rows;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,127 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.Spring5MvcRestApplication;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.config.VirtualThreadConfig;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.services.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Load test of the servlet stack on a real port: the time to answer a burst of {@code concurrency} simultaneous
+ * GET /api/v1/customers requests, with Tomcat's platform worker pool versus the virtual-threads profile.
+ * The platform pool is capped at {@link #PLATFORM_THREADS}, so bursts above that queue up in that mode.
+ * Must run on Java 21 or later for the virtual-threads mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrencyBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int CUSTOMERS = 1000;
+
+    @Param({"platform", VirtualThreadConfig.VIRTUAL_THREADS_PROFILE})
+    private String mode;
+
+    @Param({"100", "1000", "5000"})
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clients;
+    private URL customersUrl;
+
+    @Setup
+    public void setUp() throws Exception {
+        // the benchmark jvm is not started through the application's main method, keep devtools from restarting it.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplicationBuilder application = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "server.tomcat.max-threads=" + PLATFORM_THREADS,
+                        "server.tomcat.max-connections=20000", "server.tomcat.accept-count=20000");
+        if(VirtualThreadConfig.VIRTUAL_THREADS_PROFILE.equals(mode)) {
+            application.profiles(VirtualThreadConfig.VIRTUAL_THREADS_PROFILE);
+        }
+        context = application.run();
+
+        List<CustomerDTO> customerDTOS = BenchmarkData.list(CUSTOMERS, BenchmarkData::customer)
+                .stream()
+                .map(customer -> {
+                    CustomerDTO customerDTO = new CustomerDTO();
+                    customerDTO.setFirstname(customer.getFirstname());
+                    customerDTO.setLastname(customer.getLastname());
+                    return customerDTO;
+                })
+                .collect(Collectors.toList());
+        context.getBean(CustomerService.class).createNewCustomers(customerDTOS);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        customersUrl = new URL("http://localhost:" + port + CustomerController.CUSTOMER_BASE_URL);
+        // one client thread per in flight request, so the client never is what limits the concurrency.
+        clients = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @TearDown
+    public void tearDown() {
+        clients.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public long burst() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> responses = new ArrayList<>(concurrency);
+        for(int i = 0; i < concurrency; i++) {
+            responses.add(clients.submit(() -> {
+                start.await();
+                return get(customersUrl);
+            }));
+        }
+        start.countDown();
+
+        long bytes = 0;
+        for(Future<Long> response : responses) {
+            bytes += response.get();
+        }
+        return bytes;
+    }
+
+    private static long get(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            if(connection.getResponseCode() != 200) {
+                throw new IllegalStateException("GET " + url + " answered " + connection.getResponseCode());
+            }
+            long bytes = 0;
+            byte[] buffer = new byte[8192];
+            try (InputStream body = connection.getInputStream()) {
+                for(int read = body.read(buffer); read != -1; read = body.read(buffer)) {
+                    bytes += read;
+                }
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.api.v1.mapper.CategoryMapper;
+import guru.springframework.api.v1.mapper.CustomerMapper;
+import guru.springframework.api.v1.mapper.VendorMapper;
+import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.domain.Category;
+import guru.springframework.domain.Customer;
+import guru.springframework.domain.Vendor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single entity <-> DTO conversion for each of the mappers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final CustomerMapper customerMapper = CustomerMapper.INSTANCE;
+    private final VendorMapper vendorMapper = VendorMapper.INSTANCE;
+    private final CategoryMapper categoryMapper = CategoryMapper.INSTANCE;
+
+    private Customer customer;
+    private CustomerDTO customerDTO;
+    private Vendor vendor;
+    private VendorDTO vendorDTO;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        customer = BenchmarkData.customer(1L);
+        customerDTO = customerMapper.customerToCustomerDTO(customer);
+        vendor = BenchmarkData.vendor(1L);
+        vendorDTO = vendorMapper.vendorToVendorDTO(vendor);
+        category = BenchmarkData.category(1L);
+    }
+
+    @Benchmark
+    public CustomerDTO customerToCustomerDTO() {
+        return customerMapper.customerToCustomerDTO(customer);
+    }
+
+    @Benchmark
+    public Customer customerDTOToCustomer() {
+        return customerMapper.customerDTOToCustomer(customerDTO);
+    }
+
+    @Benchmark
+    public VendorDTO vendorToVendorDTO() {
+        return vendorMapper.vendorToVendorDTO(vendor);
+    }
+
+    @Benchmark
+    public Vendor vendorDTOToVendor() {
+        return vendorMapper.vendorDTOToVendor(vendorDTO);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToCategoryDTO() {
+        return categoryMapper.categoryToCategoryDTO(category);
+    }
+}
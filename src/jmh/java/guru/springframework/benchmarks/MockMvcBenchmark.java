@@ -0,0 +1,94 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.Spring5MvcRestApplication;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.controllers.v1.CategoryController;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.controllers.v1.VendorController;
+import guru.springframework.services.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * End to end request throughput: the whole application (controllers, services, JPA on H2) behind MockMvc.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MockMvcBenchmark {
+
+    private static final int CUSTOMERS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String customerUrl;
+
+    @Setup
+    public void setUp() {
+        // the benchmark jvm is not started through the application's main method, keep devtools from restarting it.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        List<CustomerDTO> customerDTOS = BenchmarkData.list(CUSTOMERS, BenchmarkData::customer)
+                .stream()
+                .map(customer -> {
+                    CustomerDTO customerDTO = new CustomerDTO();
+                    customerDTO.setFirstname(customer.getFirstname());
+                    customerDTO.setLastname(customer.getLastname());
+                    return customerDTO;
+                })
+                .collect(Collectors.toList());
+        customerUrl = CustomerController.CUSTOMER_BASE_URL + "/" + context.getBean(CustomerService.class)
+                .createNewCustomers(customerDTOS)
+                .get(0)
+                .getCustomer()
+                .getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getAllCustomers() throws Exception {
+        return mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getCustomerPage() throws Exception {
+        return mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL).param("limit", "50")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getCustomerById() throws Exception {
+        return mockMvc.perform(get(customerUrl)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAllVendors() throws Exception {
+        return mockMvc.perform(get(VendorController.VENDOR_BASE_URL)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAllCategories() throws Exception {
+        return mockMvc.perform(get(CategoryController.BASE_URL)).andReturn();
+    }
+}
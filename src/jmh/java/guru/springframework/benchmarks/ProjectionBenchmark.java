@@ -0,0 +1,78 @@
+package guru.springframework.benchmarks;
+
+import guru.springframework.Spring5MvcRestApplication;
+import guru.springframework.api.v1.mapper.CustomerMapper;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.repositories.CustomerRepository;
+import guru.springframework.services.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Listing 10k customers from H2: loading entities and mapping them vs. selecting CustomerSummary rows
+ * (what getAllCustomers() does). Run with the gc profiler (the benchmarks profile does) to compare the
+ * allocation per list and the gc count, not just the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final int CUSTOMERS = 10000;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private CustomerService customerService;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        // see MockMvcBenchmark.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(Spring5MvcRestApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        customerRepository = context.getBean(CustomerRepository.class);
+        customerService = context.getBean(CustomerService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        customerService.createNewCustomers(BenchmarkData.list(CUSTOMERS, BenchmarkData::customer)
+                .stream()
+                .map(customer -> {
+                    CustomerDTO customerDTO = new CustomerDTO();
+                    customerDTO.setFirstname(customer.getFirstname());
+                    customerDTO.setLastname(customer.getLastname());
+                    return customerDTO;
+                })
+                .collect(Collectors.toList()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CustomerDTO> entities() {
+        return readOnlyTransaction.execute(status -> customerRepository.findAll()
+                .stream()
+                .map(CustomerMapper.INSTANCE::customerToCustomerDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<CustomerDTO> summaries() {
+        return customerService.getAllCustomers();
+    }
+}
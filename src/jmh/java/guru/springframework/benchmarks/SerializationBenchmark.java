@@ -0,0 +1,83 @@
+package guru.springframework.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import guru.springframework.api.v1.mapper.CustomerMapper;
+import guru.springframework.api.v1.mapper.VendorMapper;
+import guru.springframework.api.v1.model.CustomerListDTO;
+import guru.springframework.api.v1.model.VendorListDTO;
+import guru.springframework.config.JacksonConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writing the customer and vendor list bodies to bytes, with an ObjectMapper configured the way
+ * Spring Boot configures the one used by the message converters. The DTOs only carry ids, the resource urls
+ * are written by ResourceUrlSerializer.
+ * mapper=default is Boot's configuration alone, mapper=tuned adds JacksonConfig (afterburner and features).
+ * The *Writer benchmarks go through an ObjectWriter created once for the list type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"default", "tuned"})
+    private String mapper;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter customerListWriter;
+    private ObjectWriter vendorListWriter;
+    private CustomerListDTO customerListDTO;
+    private VendorListDTO vendorListDTO;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if("tuned".equals(mapper)) {
+            JacksonConfig.tune(builder).modulesToInstall(new AfterburnerModule());
+        }
+        objectMapper = builder.build();
+        customerListWriter = objectMapper.writerFor(CustomerListDTO.class);
+        vendorListWriter = objectMapper.writerFor(VendorListDTO.class);
+
+        customerListDTO = new CustomerListDTO(BenchmarkData.list(size, BenchmarkData::customer)
+                .stream()
+                .map(CustomerMapper.INSTANCE::customerToCustomerDTO)
+                .collect(Collectors.toList()));
+        vendorListDTO = new VendorListDTO(BenchmarkData.list(size, BenchmarkData::vendor)
+                .stream()
+                .map(VendorMapper.INSTANCE::vendorToVendorDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public byte[] writeCustomerList() throws Exception {
+        return objectMapper.writeValueAsBytes(customerListDTO);
+    }
+
+    @Benchmark
+    public byte[] writeVendorList() throws Exception {
+        return objectMapper.writeValueAsBytes(vendorListDTO);
+    }
+
+    @Benchmark
+    public byte[] writeCustomerListWriter() throws Exception {
+        return customerListWriter.writeValueAsBytes(customerListDTO);
+    }
+
+    @Benchmark
+    public byte[] writeVendorListWriter() throws Exception {
+        return vendorListWriter.writeValueAsBytes(vendorListDTO);
+    }
+}
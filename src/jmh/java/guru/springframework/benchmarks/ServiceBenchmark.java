@@ -0,0 +1,93 @@
+package guru.springframework.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.api.v1.mapper.CustomerMapper;
+import guru.springframework.api.v1.mapper.VendorMapper;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.cache.JsonResponseCache;
+import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.Vendor;
+import guru.springframework.domain.VendorSummary;
+import guru.springframework.repositories.CustomerRepository;
+import guru.springframework.repositories.VendorRepository;
+import guru.springframework.search.SearchIndex;
+import guru.springframework.services.CustomerService;
+import guru.springframework.services.CustomerServiceImpl;
+import guru.springframework.services.VendorService;
+import guru.springframework.services.VendorServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getAllCustomers() / getAllVendors() over 1000 in memory rows, i.e. the service overhead around the mapping.
+ * The *MappingOnly benchmarks are the bare mapping loop. The resource urls are no longer built here, they are
+ * written during serialization (see ResourceUrlSerializer and SerializationBenchmark).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private List<CustomerSummary> customers;
+    private List<VendorSummary> vendors;
+    private CustomerService customerService;
+    private VendorService vendorService;
+
+    @Setup
+    public void setUp() {
+        customers = BenchmarkData.list(ROWS, BenchmarkData::customerSummary);
+        vendors = BenchmarkData.list(ROWS, BenchmarkData::vendorSummary);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CustomerRepository customerRepository = BenchmarkData.findAllRepository(CustomerRepository.class, customers);
+        VendorRepository vendorRepository = BenchmarkData.findAllRepository(VendorRepository.class, vendors);
+        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository,
+                new JsonResponseCache("customers", objectMapper.writerFor(CustomerDTO.class), 1024 * 1024, 60),
+                new BatchLoader<>("customers", customerRepository::findAllById, Customer::getId, 100, 0,
+                        meterRegistry),
+                new SearchIndex("customers"), ROWS, meterRegistry);
+        vendorService = new VendorServiceImpl(VendorMapper.INSTANCE, vendorRepository,
+                new JsonResponseCache("vendors", objectMapper.writerFor(VendorDTO.class), 1024 * 1024, 60),
+                new BatchLoader<>("vendors", vendorRepository::findAllById, Vendor::getId, 100, 0,
+                        meterRegistry),
+                new SearchIndex("vendors"));
+    }
+
+    @Benchmark
+    public List<CustomerDTO> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    @Benchmark
+    public void getAllCustomersMappingOnly(Blackhole blackhole) {
+        for(CustomerSummary customer : customers) {
+            blackhole.consume(CustomerMapper.INSTANCE.customerSummaryToCustomerDTO(customer));
+        }
+    }
+
+    @Benchmark
+    public List<VendorDTO> getAllVendors() {
+        return vendorService.getAllVendors();
+    }
+
+    @Benchmark
+    public void getAllVendorsMappingOnly(Blackhole blackhole) {
+        for(VendorSummary vendor : vendors) {
+            blackhole.consume(VendorMapper.INSTANCE.vendorSummaryToVendorDTO(vendor));
+        }
+    }
+}
@@ -2,7 +2,9 @@ package guru.springframework.api.v1.mapper;
 
 import guru.springframework.api.v1.model.CategoryDTO;
 import guru.springframework.domain.Category;
+import guru.springframework.domain.CategorySummary;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -11,4 +13,9 @@ public interface CategoryMapper {
     CategoryMapper INSTANCE = Mappers.getMapper(CategoryMapper.class);
 
     CategoryDTO categoryToCategoryDTO(Category category);
+
+    // see CustomerMapper.
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    CategoryDTO categorySummaryToCategoryDTO(CategorySummary categorySummary);
 }
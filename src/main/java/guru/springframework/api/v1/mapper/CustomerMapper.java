@@ -2,7 +2,9 @@ package guru.springframework.api.v1.mapper;
 
 import guru.springframework.api.v1.model.CustomerDTO;
 import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -12,5 +14,12 @@ public interface CustomerMapper {
 
     CustomerDTO customerToCustomerDTO(Customer customer);
 
+    // summaries are list rows, they carry no version (see CustomerService.getCustomersVersion()).
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    CustomerDTO customerSummaryToCustomerDTO(CustomerSummary customerSummary);
+
+    // the id comes from the url (or the database), never from a request body.
+    @Mapping(target = "id", ignore = true)
     Customer customerDTOToCustomer(CustomerDTO customerDTO);
 }
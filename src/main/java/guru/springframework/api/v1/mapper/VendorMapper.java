@@ -2,7 +2,9 @@ package guru.springframework.api.v1.mapper;
 
 import guru.springframework.api.v1.model.VendorDTO;
 import guru.springframework.domain.Vendor;
+import guru.springframework.domain.VendorSummary;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -12,5 +14,12 @@ public interface VendorMapper {
 
     VendorDTO vendorToVendorDTO(Vendor vendor);
 
+    // see CustomerMapper.
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
+    VendorDTO vendorSummaryToVendorDTO(VendorSummary vendorSummary);
+
+    // see CustomerMapper.
+    @Mapping(target = "id", ignore = true)
     Vendor vendorDTOToVendor(VendorDTO vendorDTO);
 }
@@ -1,12 +1,20 @@
 package guru.springframework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
+import java.time.Instant;
+
 /**
  * Created by jt on 9/24/17.
  */
 @Data
-public class CategoryDTO {
+public class CategoryDTO implements VersionedDTO {
     private Long id;
     private String name;
+
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
 }
@@ -0,0 +1,19 @@
+package guru.springframework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one customer of a batch request, index is its position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchItemDTO {
+
+    private int index;
+    private int status;
+    private CustomerDTO customer;
+    private String error;
+}
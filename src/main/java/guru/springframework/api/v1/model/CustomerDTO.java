@@ -1,14 +1,27 @@
 package guru.springframework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import guru.springframework.controllers.v1.CustomerController;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
-public class CustomerDTO {
+public class CustomerDTO implements VersionedDTO {
     private String firstname;
     private String lastname;
 
     // in the video JT had this @JsonProperty, I am commenting it out just to have it as reference material!
     // @JsonProperty("customerUrl")
-    private String customer_url;
+    // only the id is kept, it is written out as the customer_url. Ignored in request bodies.
+    @JsonProperty(value = "customer_url", access = JsonProperty.Access.READ_ONLY)
+    @ResourceUrl(CustomerController.CUSTOMER_BASE_URL)
+    private Long id;
+
+    // only used for the ETag / Last-Modified headers, never part of the JSON body.
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
 }
@@ -0,0 +1,17 @@
+package guru.springframework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CustomerMultiGetDTO {
+
+    // one entry per requested id in request order, null where the id does not exist.
+    List<CustomerDTO> customers;
+    @JsonProperty("not_found")
+    List<Long> notFound;
+}
@@ -0,0 +1,18 @@
+package guru.springframework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CustomerPageDTO {
+
+    List<CustomerDTO> customers;
+
+    // link to the next page, null when this is the last page.
+    @JsonProperty("next_url")
+    private String nextUrl;
+}
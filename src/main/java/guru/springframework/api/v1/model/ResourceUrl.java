@@ -0,0 +1,22 @@
+package guru.springframework.api.v1.model;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource id that is written out as the resource's url, value() being the base url.
+ * See ResourceUrlSerializer.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = ResourceUrlSerializer.class)
+public @interface ResourceUrl {
+
+    String value();
+}
@@ -0,0 +1,70 @@
+package guru.springframework.api.v1.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes an id as base url + "/" + id without building the url as a String. Every thread gets a buffer that
+ * already holds the base url, only the digits of the id are written after it before it is handed to the
+ * generator (which encodes it straight into its output buffer).
+ */
+public class ResourceUrlSerializer extends StdSerializer<Long> implements ContextualSerializer {
+
+    // digits of Long.MAX_VALUE.
+    private static final int MAX_ID_LENGTH = 19;
+
+    private final String baseUrl;
+    private final ThreadLocal<char[]> buffers;
+
+    // used by @JsonSerialize, createContextual() replaces it with one for the property's base url.
+    public ResourceUrlSerializer() {
+        this("");
+    }
+
+    public ResourceUrlSerializer(String baseUrl) {
+        super(Long.class);
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.buffers = ThreadLocal.withInitial(
+                () -> Arrays.copyOf(this.baseUrl.toCharArray(), this.baseUrl.length() + MAX_ID_LENGTH));
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) {
+        ResourceUrl resourceUrl = property == null ? null : property.getAnnotation(ResourceUrl.class);
+        return resourceUrl == null ? this : new ResourceUrlSerializer(resourceUrl.value());
+    }
+
+    @Override
+    public void serialize(Long id, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        long value = id;
+        if(value < 0) {
+            // never a real id, not worth a fast path.
+            generator.writeString(baseUrl + value);
+            return;
+        }
+        char[] buffer = buffers.get();
+        int end = baseUrl.length() + digits(value);
+        int position = end;
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while(value != 0);
+        generator.writeString(buffer, 0, end);
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while(value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,20 @@
+package guru.springframework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendorBulkPatchDTO {
+
+    @NotNull
+    private List<Long> ids;
+    // the non null fields are applied to every vendor in ids.
+    @NotNull
+    private VendorDTO vendor;
+}
@@ -0,0 +1,11 @@
+package guru.springframework.api.v1.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class VendorBulkResultDTO {
+
+    private int affected;
+}
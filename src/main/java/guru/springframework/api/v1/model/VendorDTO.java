@@ -1,12 +1,24 @@
 package guru.springframework.api.v1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import guru.springframework.controllers.v1.VendorController;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
-public class VendorDTO {
+public class VendorDTO implements VersionedDTO {
 
     private String name;
-    @JsonProperty("vendor_url")
-    private String vendorUrl;
+    // written out as the vendor_url, see CustomerDTO.
+    @JsonProperty(value = "vendor_url", access = JsonProperty.Access.READ_ONLY)
+    @ResourceUrl(VendorController.VENDOR_BASE_URL)
+    private Long id;
+
+    // only used for the ETag / Last-Modified headers, never part of the JSON body.
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Instant lastModified;
 }
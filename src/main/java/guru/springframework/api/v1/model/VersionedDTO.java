@@ -0,0 +1,13 @@
+package guru.springframework.api.v1.model;
+
+import java.time.Instant;
+
+/**
+ * DTOs that carry the version and last modification time of the entity they were mapped from.
+ */
+public interface VersionedDTO {
+
+    Long getVersion();
+
+    Instant getLastModified();
+}
@@ -0,0 +1,137 @@
+package guru.springframework.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Micro-batches single key lookups from concurrent callers into one bulk load (e.g. one IN query).
+ *
+ * The first caller of a batch waits for up to the window, every key requested meanwhile joins its batch, then
+ * the whole batch is loaded at once and every caller gets its own value. A batch that reaches the max size is
+ * loaded right away by the caller that filled it. A window of 0 adds no latency but also hardly batches anything.
+ *
+ * The sizes of the loaded batches are published on the given registry as "batchloader.batch.size".
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<List<K>, ? extends Iterable<V>> loadAll;
+    private final Function<V, K> keyOf;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final DistributionSummary batchSizes;
+
+    private final Object lock = new Object();
+    private Batch<K, V> pending = new Batch<>();
+
+    /**
+     * @param loadAll loads the values for a list of keys, keys without a value are simply left out.
+     * @param keyOf   the key of a loaded value.
+     */
+    public BatchLoader(String name, Function<List<K>, ? extends Iterable<V>> loadAll, Function<V, K> keyOf,
+                       int maxBatchSize, long windowMicros, MeterRegistry meterRegistry) {
+        this.loadAll = loadAll;
+        this.keyOf = keyOf;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.batchSizes = DistributionSummary.builder("batchloader.batch.size")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the value for the key, or null if there is none.
+     */
+    public V load(K key) {
+        Batch<K, V> batch;
+        CompletableFuture<V> future;
+        boolean leader = false;
+        boolean full = false;
+
+        synchronized (lock) {
+            batch = pending;
+            future = batch.futures.get(key);
+            if(future == null) {
+                future = new CompletableFuture<>();
+                batch.futures.put(key, future);
+                if(batch.futures.size() == 1) {
+                    leader = true;
+                    batch.leader = Thread.currentThread();
+                }
+                if(batch.futures.size() >= maxBatchSize) {
+                    full = true;
+                    pending = new Batch<>();
+                }
+            }
+        }
+
+        if(full) {
+            // the leader doesn't have to wait for the rest of the window anymore.
+            LockSupport.unpark(batch.leader);
+            dispatch(batch);
+        } else if(leader && takeAfterWindow(batch)) {
+            dispatch(batch);
+        }
+        return await(future);
+    }
+
+    private boolean takeAfterWindow(Batch<K, V> batch) {
+        long deadline = System.nanoTime() + windowNanos;
+        while(true) {
+            synchronized (lock) {
+                if(pending != batch) {
+                    // filled up and loaded by another caller meanwhile.
+                    return false;
+                }
+                if(deadline - System.nanoTime() <= 0) {
+                    pending = new Batch<>();
+                    return true;
+                }
+            }
+            LockSupport.parkNanos(this, deadline - System.nanoTime());
+        }
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        batchSizes.record(batch.futures.size());
+        try {
+            Map<K, V> values = new HashMap<>();
+            for(V value : loadAll.apply(new ArrayList<>(batch.futures.keySet()))) {
+                values.put(keyOf.apply(value), value);
+            }
+            batch.futures.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        private Thread leader;
+    }
+}
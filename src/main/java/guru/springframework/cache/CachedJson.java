@@ -0,0 +1,36 @@
+package guru.springframework.cache;
+
+import guru.springframework.domain.ResourceVersion;
+
+/**
+ * A response body that has already been encoded as UTF-8 JSON, together with the validators
+ * (strong ETag and Last-Modified) of the data it was encoded from.
+ */
+public final class CachedJson {
+
+    private final byte[] bytes;
+    private final String eTag;
+    private final long lastModified;
+
+    public CachedJson(byte[] bytes, String eTag, long lastModified) {
+        this.bytes = bytes;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public static CachedJson of(byte[] bytes, ResourceVersion version) {
+        return new CachedJson(bytes, version.getETag(), version.getLastModified());
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
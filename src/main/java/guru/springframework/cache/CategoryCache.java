@@ -0,0 +1,55 @@
+package guru.springframework.cache;
+
+import guru.springframework.api.v1.model.CategoryDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Categories are small, rarely written reference data that is read on almost every request,
+ * so both the by-name lookups and the serialized full list are kept in memory.
+ * Anything that writes categories must call one of the invalidate methods.
+ */
+@Component
+public class CategoryCache {
+
+    private static final String ALL_CATEGORIES = "all";
+
+    private final LocalCache<String, CategoryDTO> categoriesByName;
+    private final LocalCache<String, CachedJson> allCategoriesJson;
+
+    public CategoryCache(@Value("${cache.categories.max-size:1000}") long maxSize,
+                         @Value("${cache.categories.ttl-seconds:600}") long ttlSeconds) {
+        this.categoriesByName = new LocalCache<>("categories.by-name", maxSize, ttlSeconds, TimeUnit.SECONDS);
+        this.allCategoriesJson = new LocalCache<>("categories.all", 1, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    public CategoryDTO getByName(String name, Function<String, CategoryDTO> loader) {
+        return categoriesByName.get(name, loader);
+    }
+
+    public CachedJson getAllAsJson(Supplier<CachedJson> loader) {
+        return allCategoriesJson.get(ALL_CATEGORIES, key -> loader.get());
+    }
+
+    public void invalidate(String name) {
+        categoriesByName.invalidate(name);
+        allCategoriesJson.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        categoriesByName.invalidateAll();
+        allCategoriesJson.invalidateAll();
+    }
+
+    public LocalCache<String, CategoryDTO> getCategoriesByName() {
+        return categoriesByName;
+    }
+
+    public LocalCache<String, CachedJson> getAllCategoriesJson() {
+        return allCategoriesJson;
+    }
+}
@@ -0,0 +1,90 @@
+package guru.springframework.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import guru.springframework.api.v1.model.VersionedDTO;
+import guru.springframework.domain.ResourceVersion;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps the encoded JSON body of single entity GETs by id, bounded by the total number of bytes held.
+ * The owning service must invalidate an id whenever that entity is written or deleted. A body loaded while
+ * its id is invalidated is not cached (see LocalCache.get()), so a read racing a write cannot put the old
+ * body back.
+ */
+public class JsonResponseCache {
+
+    private final LocalCache<Long, CachedJson> responses;
+    private final ObjectWriter writer;
+
+    /**
+     * @param writer for the cached DTO type (ObjectMapper.writerFor()), it already holds the DTO's serializer
+     *               so it is not looked up again for every body.
+     */
+    public JsonResponseCache(String name, ObjectWriter writer, long maxBytes, long ttlSeconds) {
+        this.writer = writer;
+        this.responses = new LocalCache<>(name, maxBytes, ttlSeconds, TimeUnit.SECONDS,
+                cachedJson -> cachedJson.getBytes().length);
+    }
+
+    /**
+     * @param loader returns the DTO to serialize for the id, or null if there is no such entity.
+     * @return the cached body, or null if the loader found nothing.
+     */
+    public CachedJson get(Long id, Function<Long, ? extends VersionedDTO> loader) {
+        return responses.get(id, key -> {
+            VersionedDTO body = loader.apply(key);
+            if(body == null) {
+                return null;
+            }
+            return CachedJson.of(serialize(body), ResourceVersion.of(body.getVersion(), body.getLastModified()));
+        });
+    }
+
+    public void invalidate(Long id) {
+        responses.invalidate(id);
+    }
+
+    public void invalidateAfterCommit(Long id) {
+        invalidateAfterCommit(Collections.singletonList(id));
+    }
+
+    /**
+     * For writes made inside a transaction: invalidating before the commit would let a concurrent read
+     * cache the old rows again. Outside of a transaction the ids are invalidated right away.
+     */
+    public void invalidateAfterCommit(Collection<Long> ids) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(this::invalidate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(JsonResponseCache.this::invalidate);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        responses.invalidateAll();
+    }
+
+    public LocalCache<Long, CachedJson> getResponses() {
+        return responses;
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return writer.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize " + body.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package guru.springframework.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small bounded, concurrent in-process cache.
+ *
+ * Entries expire after a fixed time to live and the oldest entries are evicted (FIFO) once the total
+ * weight goes over the limit. By default every entry weighs 1 so the limit is simply the number of entries,
+ * a weigher can be given to bound the cache by something else (e.g. bytes).
+ * Hit, miss and eviction counts are kept so they can be published as metrics.
+ *
+ * Reads only touch a ConcurrentHashMap. Writes also keep the insertion order, a LinkedHashMap guarded by
+ * a lock, so replacing or invalidating an entry does not have to search for it.
+ */
+public class LocalCache<K, V> {
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final String name;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<? super V> weigher;
+
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    // same entries as above, oldest first. Both maps are only changed while holding this one's lock.
+    private final LinkedHashMap<K, Entry<K, V>> insertionOrder = new LinkedHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    // bumped whenever a key of the stripe is written or invalidated, see get().
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LocalCache(String name, long maxSize, long ttl, TimeUnit ttlUnit) {
+        this(name, maxSize, ttl, ttlUnit, value -> 1L);
+    }
+
+    public LocalCache(String name, long maxWeight, long ttl, TimeUnit ttlUnit, ToLongFunction<? super V> weigher) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlUnit.toNanos(ttl);
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached value, loading (and caching) it on a miss. Null values are never cached.
+     *
+     * If the key is invalidated (or put) while the loader runs, the loaded value is returned but not cached:
+     * it may have been read before the write that invalidated it.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if(value != null) {
+            return value;
+        }
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        value = loader.apply(key);
+        if(value != null) {
+            synchronized(insertionOrder) {
+                if(generations.get(stripe) == generation) {
+                    store(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if(entry == null) {
+            misses.increment();
+            return null;
+        }
+        if(entry.isExpired(System.nanoTime())) {
+            if(remove(entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        synchronized(insertionOrder) {
+            generations.incrementAndGet(stripe(key));
+            store(key, value);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized(insertionOrder) {
+            generations.incrementAndGet(stripe(key));
+            Entry<K, V> entry = insertionOrder.remove(key);
+            if(entry != null) {
+                entries.remove(key);
+                weight.addAndGet(-entry.weight);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized(insertionOrder) {
+            for(int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+                generations.incrementAndGet(stripe);
+            }
+            insertionOrder.clear();
+            entries.clear();
+            weight.set(0);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return weight.get();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // called with the lock held.
+    private void store(K key, V value) {
+        Entry<K, V> entry = new Entry<>(key, value, weigher.applyAsLong(value), System.nanoTime() + ttlNanos);
+
+        // removed first so the new entry goes to the end of the insertion order.
+        Entry<K, V> replaced = insertionOrder.remove(key);
+        if(replaced != null) {
+            weight.addAndGet(-replaced.weight);
+        }
+        insertionOrder.put(key, entry);
+        entries.put(key, entry);
+        weight.addAndGet(entry.weight);
+        evictIfNeeded();
+    }
+
+    // called with the lock held.
+    private void evictIfNeeded() {
+        Iterator<Entry<K, V>> eldest = insertionOrder.values().iterator();
+        while(weight.get() > maxWeight && eldest.hasNext()) {
+            Entry<K, V> entry = eldest.next();
+            eldest.remove();
+            entries.remove(entry.key);
+            weight.addAndGet(-entry.weight);
+            evictions.increment();
+        }
+    }
+
+    private boolean remove(Entry<K, V> entry) {
+        synchronized(insertionOrder) {
+            // it may have been replaced or invalidated since it was read.
+            if(!insertionOrder.remove(entry.key, entry)) {
+                return false;
+            }
+            entries.remove(entry.key);
+            weight.addAndGet(-entry.weight);
+            return true;
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long weight;
+        private final long expiresAt;
+
+        private Entry(K key, V value, long weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package guru.springframework.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader, callers arriving while
+ * it is still running wait for and share its result (or exception). Nothing is kept once the load is done,
+ * this only protects the database from a burst of identical cache misses.
+ *
+ * The number of loads and coalesced calls are published on the given registry as "singleflight.calls".
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.name = name;
+        FunctionCounter.builder("singleflight.calls", this, SingleFlight::loadCount)
+                .tag("name", name)
+                .tag("result", "load")
+                .register(meterRegistry);
+        FunctionCounter.builder("singleflight.calls", this, SingleFlight::coalescedCount)
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if(existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // rethrow what the loader threw, so waiting callers see the same exception as the one that loaded.
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package guru.springframework.config;
+
+import guru.springframework.metrics.StatementCountingInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String LIST_EXECUTOR = "listExecutor";
+
+    /**
+     * Runs the full list queries of the async endpoints off the Tomcat pool. Both the threads and the queue are
+     * bounded, once full new work is rejected (TaskRejectedException) and answered with a 503.
+     */
+    @Bean(LIST_EXECUTOR)
+    public ThreadPoolTaskExecutor listExecutor(@Value("${async.list.threads:4}") int threads,
+                                               @Value("${async.list.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("list-");
+        // the statements of an async request are counted for that request, see StatementMetricsInterceptor.
+        executor.setTaskDecorator(StatementCountingInspector::propagate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,94 @@
+package guru.springframework.config;
+
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.domain.Customer;
+import guru.springframework.domain.Vendor;
+import guru.springframework.repositories.CustomerRepository;
+import guru.springframework.repositories.VendorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * By-id lookups arriving within batch.by-id.window-micros of each other are loaded with one findAllById,
+ * except for the entities the second level cache already has.
+ */
+@Configuration
+public class BatchLoaderConfig {
+
+    public static final String CUSTOMER_LOADER = "customerLoader";
+    public static final String VENDOR_LOADER = "vendorLoader";
+
+    @Bean(CUSTOMER_LOADER)
+    public BatchLoader<Long, Customer> customerLoader(CustomerRepository customerRepository,
+                                                      EntityManagerFactory entityManagerFactory,
+                                                      PlatformTransactionManager transactionManager,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${batch.by-id.max-size:100}") int maxBatchSize,
+                                                      @Value("${batch.by-id.window-micros:200}") long windowMicros) {
+        return new BatchLoader<>("customers",
+                secondLevelCacheFirst(readOnly(transactionManager),
+                        SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                        Customer.class, customerRepository),
+                Customer::getId, maxBatchSize, windowMicros, meterRegistry);
+    }
+
+    @Bean(VENDOR_LOADER)
+    public BatchLoader<Long, Vendor> vendorLoader(VendorRepository vendorRepository,
+                                                  EntityManagerFactory entityManagerFactory,
+                                                  PlatformTransactionManager transactionManager,
+                                                  MeterRegistry meterRegistry,
+                                                  @Value("${batch.by-id.max-size:100}") int maxBatchSize,
+                                                  @Value("${batch.by-id.window-micros:200}") long windowMicros) {
+        return new BatchLoader<>("vendors",
+                secondLevelCacheFirst(readOnly(transactionManager),
+                        SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                        Vendor.class, vendorRepository),
+                Vendor::getId, maxBatchSize, windowMicros, meterRegistry);
+    }
+
+    private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    // an IN query always goes to the database, only the ids that aren't in the second level cache are queried.
+    // one transaction per batch: the cached ids are read with find, from the same session as the IN query.
+    // the loaded entities fill the JSON and second level caches, so they are read from the primary.
+    static <T> Function<List<Long>, List<T>> secondLevelCacheFirst(TransactionTemplate transactionTemplate,
+                                                                  EntityManager entityManager, Class<T> type,
+                                                                  JpaRepository<T, Long> repository) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        return ids -> ReplicaRoutingDataSource.readFromPrimary(() -> transactionTemplate.execute(status -> {
+            List<T> entities = new ArrayList<>(ids.size());
+            List<Long> uncachedIds = new ArrayList<>(ids.size());
+            for(Long id : ids) {
+                if(cache.contains(type, id)) {
+                    T entity = entityManager.find(type, id);
+                    if(entity != null) {
+                        entities.add(entity);
+                    }
+                } else {
+                    uncachedIds.add(id);
+                }
+            }
+            if(!uncachedIds.isEmpty()) {
+                entities.addAll(repository.findAllById(uncachedIds));
+            }
+            return entities;
+        }));
+    }
+}
@@ -0,0 +1,30 @@
+package guru.springframework.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.cache.JsonResponseCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String CUSTOMER_JSON_CACHE = "customerJsonCache";
+    public static final String VENDOR_JSON_CACHE = "vendorJsonCache";
+
+    @Bean(CUSTOMER_JSON_CACHE)
+    public JsonResponseCache customerJsonCache(ObjectMapper objectMapper,
+                                               @Value("${cache.customers.max-bytes:16777216}") long maxBytes,
+                                               @Value("${cache.customers.ttl-seconds:300}") long ttlSeconds) {
+        return new JsonResponseCache("customers.json", objectMapper.writerFor(CustomerDTO.class), maxBytes, ttlSeconds);
+    }
+
+    @Bean(VENDOR_JSON_CACHE)
+    public JsonResponseCache vendorJsonCache(ObjectMapper objectMapper,
+                                             @Value("${cache.vendors.max-bytes:16777216}") long maxBytes,
+                                             @Value("${cache.vendors.ttl-seconds:300}") long ttlSeconds) {
+        return new JsonResponseCache("vendors.json", objectMapper.writerFor(VendorDTO.class), maxBytes, ttlSeconds);
+    }
+}
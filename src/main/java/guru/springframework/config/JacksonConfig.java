@@ -0,0 +1,68 @@
+package guru.springframework.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Tunes the ObjectMapper Spring Boot builds for the message converters, the JSON caches and the exports.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // generates bytecode for the DTO getters / setters instead of calling them through reflection.
+    // registered as a bean so Boot adds it next to the modules it finds itself.
+    @Bean
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer tunedObjectMapperCustomizer() {
+        return JacksonConfig::tune;
+    }
+
+    /**
+     * Binary bodies for internal consumers that send Accept: application/x-jackson-smile or application/cbor.
+     * These replace the converters Spring MVC would otherwise add with an untuned mapper, they come after the
+     * JSON converter so JSON stays the default. Smile writes a repeated property name as a back reference,
+     * so in a list every name is only spelled out once.
+     *
+     * Boot's builder is a singleton shared with the primary ObjectMapper, setting a factory on it would leak into
+     * every mapper built after these. Here it only configures mappers that have their own factory, so they still
+     * get the spring.jackson properties, the modules and the tune() settings.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper(builder, new SmileFactory()));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryObjectMapper(builder, new CBORFactory()));
+    }
+
+    /**
+     * Everything but the module, shared with the serialization benchmark so it measures this configuration.
+     * A value is never flushed on its own, the converters and the exports flush once the body is written.
+     */
+    public static Jackson2ObjectMapperBuilder tune(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static ObjectMapper binaryObjectMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        builder.configure(objectMapper);
+        return objectMapper;
+    }
+}
@@ -0,0 +1,48 @@
+package guru.springframework.config;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+@Configuration
+public class JpaConfig {
+
+    // static, so the post processor is created before (and applied to) the entity manager factory.
+    @Bean
+    public static BeanPostProcessor readOnlyJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if(bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setJpaDialect(new ReadOnlyHibernateJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Spring 5.0 only switches a read-only transaction's session to manual flushing. This also loads every entity
+     * read-only, so hibernate keeps no dirty checking snapshots for them.
+     */
+    static class ReadOnlyHibernateJpaDialect extends HibernateJpaDialect {
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws SQLException {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            if(definition.isReadOnly()) {
+                // the session lives as long as the transaction (open-in-view is off), nothing to reset afterwards.
+                entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            }
+            return transactionData;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package guru.springframework.config;
+
+import guru.springframework.cache.CategoryCache;
+import guru.springframework.cache.JsonResponseCache;
+import guru.springframework.metrics.CacheMetrics;
+import guru.springframework.metrics.SecondLevelCacheMetrics;
+import guru.springframework.metrics.StatementMetricsInterceptor;
+import guru.springframework.metrics.StatementMetricsWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    // picked up by every handler mapping, applies to all paths.
+    @Bean
+    public MappedInterceptor statementMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new MappedInterceptor(null, new StatementMetricsInterceptor(meterRegistry));
+    }
+
+    // the same metric for the WebFlux controllers.
+    @Bean
+    @Profile(ReactiveConfig.REACTIVE_PROFILE)
+    public StatementMetricsWebFilter statementMetricsWebFilter(MeterRegistry meterRegistry) {
+        return new StatementMetricsWebFilter(meterRegistry);
+    }
+
+    @Bean
+    public CacheMetrics cacheMetrics(CategoryCache categoryCache, List<JsonResponseCache> jsonResponseCaches) {
+        return new CacheMetrics(categoryCache, jsonResponseCaches);
+    }
+
+    // hibernate's own statistics (statements, entity loads, second level / query cache), needs generate_statistics.
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory, "entityManagerFactory", Collections.emptyList());
+    }
+
+    @Bean
+    public SecondLevelCacheMetrics secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return new SecondLevelCacheMetrics(entityManagerFactory);
+    }
+}
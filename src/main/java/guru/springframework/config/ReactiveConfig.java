@@ -0,0 +1,29 @@
+package guru.springframework.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveConfig {
+
+    public static final String REACTIVE_PROFILE = "reactive";
+    public static final String JDBC_SCHEDULER = "jdbcScheduler";
+
+    /**
+     * JPA / JDBC calls block, so the reactive services run them here and never on the event loop.
+     * One thread per pooled connection, more threads would only wait on the pool.
+     */
+    @Bean(name = JDBC_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${reactive.jdbc.threads:10}") int threads) {
+        return Schedulers.fromExecutorService(
+                Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("jdbc-")));
+    }
+}
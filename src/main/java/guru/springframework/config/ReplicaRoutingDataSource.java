@@ -0,0 +1,57 @@
+package guru.springframework.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere else.
+ * Has to sit behind a LazyConnectionDataSourceProxy: the transaction manager opens the connection before the
+ * transaction is marked read-only, the proxy defers that until the first statement.
+ *
+ * Loads that fill a cache run through readFromPrimary(), so the replica's lag only ever delays uncached reads.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targetDataSources.put(REPLICA, replica);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs the reads against the primary, read-only transactions included. For loads whose result gets cached
+     * (JSON responses, categories, second level cache): a lagging replica can still return the row as it was
+     * before the write that invalidated the entry, which would then be served until it expires. The connection is
+     * picked when a transaction first needs one, so the transaction has to start inside.
+     */
+    public static <T> T readFromPrimary(Supplier<T> reads) {
+        Boolean outer = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if(outer == null) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_READS.get() == null
+                ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,24 @@
+package guru.springframework.config;
+
+import guru.springframework.search.SearchIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SearchConfig {
+
+    public static final String CUSTOMER_SEARCH_INDEX = "customerSearchIndex";
+    public static final String VENDOR_SEARCH_INDEX = "vendorSearchIndex";
+
+    // customers by first and last name.
+    @Bean(CUSTOMER_SEARCH_INDEX)
+    public SearchIndex customerSearchIndex() {
+        return new SearchIndex("customers");
+    }
+
+    // vendors by name.
+    @Bean(VENDOR_SEARCH_INDEX)
+    public SearchIndex vendorSearchIndex() {
+        return new SearchIndex("vendors");
+    }
+}
@@ -0,0 +1,49 @@
+package guru.springframework.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every Tomcat request, and with it the blocking JPA calls of the services, on its own virtual thread
+ * instead of the fixed worker pool. Needs a Java 21+ runtime, the build itself stays on Java 8 so
+ * the executor is looked up reflectively.
+ */
+@Configuration
+@Profile(VirtualThreadConfig.VIRTUAL_THREADS_PROFILE)
+public class VirtualThreadConfig {
+
+    public static final String VIRTUAL_THREADS_PROFILE = "virtual-threads";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The " + VIRTUAL_THREADS_PROFILE + " profile needs Java 21 or later, running on "
+                    + System.getProperty("java.version"), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to create the virtual thread executor", e);
+        }
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            // the executor is only settable on the protocol implementations, not on the ProtocolHandler interface.
+            ProtocolHandler protocolHandler = connector.getProtocolHandler();
+            if(protocolHandler instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) protocolHandler).setExecutor(virtualThreadExecutor);
+            }
+        });
+    }
+}
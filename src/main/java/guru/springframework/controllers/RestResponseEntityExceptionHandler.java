@@ -1,6 +1,12 @@
 package guru.springframework.controllers;
 
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.services.InvalidRequestException;
 import guru.springframework.services.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,12 +15,41 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @ControllerAdvice
+@Profile("!" + ReactiveConfig.REACTIVE_PROFILE)
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
+    // a saturated list executor usually drains within a second or two.
+    public static final String RETRY_AFTER_SECONDS = "2";
+
+    // global registry, Spring Boot adds its registries to it so this also works for the standalone mock mvc tests.
+    private final Counter notFoundCounter = Metrics.counter("api.errors",
+            "exception", ResourceNotFoundException.class.getSimpleName(), "status", "404");
+    private final Counter invalidCounter = Metrics.counter("api.errors",
+            "exception", InvalidRequestException.class.getSimpleName(), "status", "400");
+    private final Counter rejectedCounter = Metrics.counter("api.errors",
+            "exception", TaskRejectedException.class.getSimpleName(), "status", "503");
+
     @ExceptionHandler({ResourceNotFoundException.class})
     public ResponseEntity<Object> handleNotFoundException(Exception exception, WebRequest request) {
+        notFoundCounter.increment();
         return new ResponseEntity<Object>("Resource Not Found", new HttpHeaders(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({InvalidRequestException.class})
+    public ResponseEntity<Object> handleInvalidRequestException(Exception exception, WebRequest request) {
+        invalidCounter.increment();
+        return new ResponseEntity<Object>(exception.getMessage(), new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({TaskRejectedException.class, RejectedExecutionException.class})
+    public ResponseEntity<Object> handleRejectedException(Exception exception, WebRequest request) {
+        rejectedCounter.increment();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return new ResponseEntity<Object>("Service Unavailable", headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
@@ -0,0 +1,50 @@
+package guru.springframework.controllers.reactive;
+
+import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.controllers.v1.CategoryController;
+import guru.springframework.domain.ResourceVersion;
+import guru.springframework.services.ReactiveCategoryService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux version of CategoryController, same paths and bodies.
+ */
+@RestController
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+@RequestMapping(CategoryController.BASE_URL)
+public class ReactiveCategoryController {
+
+    private final ReactiveCategoryService categoryService;
+
+    public ReactiveCategoryController(ReactiveCategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getAllCategories() {
+        return categoryService.getAllCategoriesJson()
+                .map(categoriesJson -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON_UTF8)
+                        .eTag(categoriesJson.getETag())
+                        .lastModified(categoriesJson.getLastModified())
+                        .body(categoriesJson.getBytes()));
+    }
+
+    @GetMapping("/{name}")
+    public Mono<ResponseEntity<CategoryDTO>> getCategoryByName(@PathVariable String name) {
+        return categoryService.getCategoryByName(name)
+                .map(categoryDTO -> {
+                    ResourceVersion categoryVersion =
+                            ResourceVersion.of(categoryDTO.getVersion(), categoryDTO.getLastModified());
+                    return ResponseEntity.ok()
+                            .eTag(categoryVersion.getETag())
+                            .lastModified(categoryVersion.getLastModified())
+                            .body(categoryDTO);
+                });
+    }
+}
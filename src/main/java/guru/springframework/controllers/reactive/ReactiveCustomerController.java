@@ -0,0 +1,95 @@
+package guru.springframework.controllers.reactive;
+
+import guru.springframework.api.v1.model.CustomerBatchResultDTO;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerListDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.services.ReactiveCustomerService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * WebFlux version of CustomerController, same paths and bodies.
+ */
+@RestController
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+@RequestMapping(CustomerController.CUSTOMER_BASE_URL)
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService customerService;
+
+    public ReactiveCustomerController(ReactiveCustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    @GetMapping
+    public Mono<CustomerListDTO> getAllCustomers(ServerWebExchange exchange) {
+        // answer 304 from the cheap aggregate version query before loading or serializing anything.
+        return customerService.getCustomersVersion()
+                .filter(version -> !exchange.checkNotModified(version.getETag(),
+                        Instant.ofEpochMilli(version.getLastModified())))
+                .flatMap(version -> customerService.getAllCustomers().collectList())
+                .map(CustomerListDTO::new);
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<CustomerPageDTO> getCustomerPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        return customerService.getCustomerPage(after, limit);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<CustomerMultiGetDTO> getCustomersByIds(@RequestParam List<Long> ids) {
+        return customerService.getCustomersByIds(ids);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> getCustomerById(@PathVariable Long id) {
+        return customerService.getCustomerJsonById(id)
+                .map(customerJson -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON_UTF8)
+                        .eTag(customerJson.getETag())
+                        .lastModified(customerJson.getLastModified())
+                        .body(customerJson.getBytes()));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CustomerDTO> createNewCustomer(@RequestBody CustomerDTO customerDTO) {
+        return customerService.createNewCustomer(customerDTO);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<CustomerBatchResultDTO> createNewCustomers(@RequestBody List<CustomerDTO> customerDTOS) {
+        return customerService.createNewCustomers(customerDTOS).collectList().map(CustomerBatchResultDTO::new);
+    }
+
+    @PutMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<CustomerDTO> updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO) {
+        return customerService.saveCustomerByDTO(id, customerDTO);
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<CustomerDTO> patchCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO) {
+        return customerService.patchCustomer(id, customerDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<Void> deleteCustomer(@PathVariable Long id) {
+        return customerService.deleteCustomerById(id);
+    }
+}
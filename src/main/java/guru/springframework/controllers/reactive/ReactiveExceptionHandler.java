@@ -0,0 +1,38 @@
+package guru.springframework.controllers.reactive;
+
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.services.InvalidRequestException;
+import guru.springframework.services.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * WebFlux counterpart of RestResponseEntityExceptionHandler (which is built on Spring MVC's request types).
+ */
+@ControllerAdvice
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveExceptionHandler {
+
+    private final Counter notFoundCounter = Metrics.counter("api.errors",
+            "exception", ResourceNotFoundException.class.getSimpleName(), "status", "404");
+    private final Counter invalidCounter = Metrics.counter("api.errors",
+            "exception", InvalidRequestException.class.getSimpleName(), "status", "400");
+
+    @ExceptionHandler({ResourceNotFoundException.class})
+    public ResponseEntity<Object> handleNotFoundException(Exception exception) {
+        notFoundCounter.increment();
+        return new ResponseEntity<Object>("Resource Not Found", new HttpHeaders(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler({InvalidRequestException.class})
+    public ResponseEntity<Object> handleInvalidRequestException(Exception exception) {
+        invalidCounter.increment();
+        return new ResponseEntity<Object>(exception.getMessage(), new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,140 @@
+package guru.springframework.controllers.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import guru.springframework.api.v1.model.VendorBulkPatchDTO;
+import guru.springframework.api.v1.model.VendorBulkResultDTO;
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.api.v1.model.VendorListDTO;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.controllers.v1.VendorController;
+import guru.springframework.services.ReactiveVendorService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * WebFlux version of VendorController, same paths and bodies.
+ */
+@RestController
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+@RequestMapping(VendorController.VENDOR_BASE_URL)
+public class ReactiveVendorController {
+
+    private final ReactiveVendorService vendorService;
+    private final ObjectWriter vendorWriter;
+
+    public ReactiveVendorController(ReactiveVendorService vendorService, ObjectMapper objectMapper) {
+        this.vendorService = vendorService;
+        this.vendorWriter = objectMapper.writerFor(VendorDTO.class);
+    }
+
+    @GetMapping
+    public Mono<VendorListDTO> getAllVendors(ServerWebExchange exchange) {
+        // answer 304 from the cheap aggregate version query before loading or serializing anything.
+        return vendorService.getVendorsVersion()
+                .filter(version -> !exchange.checkNotModified(version.getETag(),
+                        Instant.ofEpochMilli(version.getLastModified())))
+                .flatMap(version -> vendorService.getAllVendors().collectList())
+                .map(VendorListDTO::new);
+    }
+
+    /**
+     * Same {"vendors":[...]} body as getAllVendors(), written vendor by vendor as the export cursor is read.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<Void> exportVendors(ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON_UTF8);
+
+        Flux<DataBuffer> vendors = vendorService.exportVendors()
+                .index()
+                .map(indexedVendor -> {
+                    byte[] vendorJson = toJson(indexedVendor.getT2());
+                    DataBuffer buffer = bufferFactory.allocateBuffer(vendorJson.length + 1);
+                    if(indexedVendor.getT1() > 0) {
+                        buffer.write((byte) ',');
+                    }
+                    return buffer.write(vendorJson);
+                });
+        return response.writeWith(Flux.concat(
+                Mono.fromSupplier(() -> bufferFactory.wrap("{\"vendors\":[".getBytes(StandardCharsets.UTF_8))),
+                vendors,
+                Mono.fromSupplier(() -> bufferFactory.wrap("]}".getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<VendorMultiGetDTO> getVendorsByIds(@RequestParam List<Long> ids) {
+        return vendorService.getVendorsByIds(ids);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<byte[]>> getVendorById(@PathVariable Long id) {
+        return vendorService.getVendorJsonById(id)
+                .map(vendorJson -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON_UTF8)
+                        .eTag(vendorJson.getETag())
+                        .lastModified(vendorJson.getLastModified())
+                        .body(vendorJson.getBytes()));
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<VendorDTO> createNewVendor(@RequestBody VendorDTO vendorDTO) {
+        return vendorService.createNewVendor(vendorDTO);
+    }
+
+    @PutMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<VendorDTO> updateVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO) {
+        return vendorService.updateVendor(id, vendorDTO);
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<VendorDTO> patchVendor(@PathVariable Long id, @RequestBody VendorDTO vendorDTO) {
+        return vendorService.patchVendor(id, vendorDTO);
+    }
+
+    @PatchMapping
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<VendorBulkResultDTO> patchVendors(@Valid @RequestBody VendorBulkPatchDTO vendorBulkPatchDTO) {
+        return vendorService.patchVendors(vendorBulkPatchDTO.getIds(), vendorBulkPatchDTO.getVendor())
+                .map(VendorBulkResultDTO::new);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<Void> deleteVendor(@PathVariable Long id) {
+        return vendorService.deleteVendorById(id);
+    }
+
+    @DeleteMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<VendorBulkResultDTO> deleteVendors(@RequestParam List<Long> ids) {
+        return vendorService.deleteVendorsByIds(ids).map(VendorBulkResultDTO::new);
+    }
+
+    private byte[] toJson(VendorDTO vendorDTO) {
+        try {
+            return vendorWriter.writeValueAsBytes(vendorDTO);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize vendor", e);
+        }
+    }
+}
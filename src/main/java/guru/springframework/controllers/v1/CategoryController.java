@@ -1,14 +1,18 @@
 package guru.springframework.controllers.v1;
 
 import guru.springframework.api.v1.model.CategoryDTO;
-import guru.springframework.api.v1.model.CategoryListDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.services.CategoryService;
-import org.springframework.http.HttpStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Profile("!" + ReactiveConfig.REACTIVE_PROFILE)
 @RequestMapping({CategoryController.BASE_URL})
 //@RequestMapping("${some.url.value}") // using properties file. (the spring context is necessary so unit tests becoming IT texts b/c the spring context would need to be loaded).
 public class CategoryController {
@@ -20,15 +24,25 @@ public class CategoryController {
         this.categoryService = categoryService;
     }
 
+    // ETag / Last-Modified on a ResponseEntity make Spring answer a matching conditional GET with a 304.
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public CategoryListDTO getAllCategories(){
-        return new CategoryListDTO(categoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories(){
+        // the list is served pre-serialized from the category cache, no mapping or JSON encoding per request.
+        CachedJson categoriesJson = categoryService.getAllCategoriesJson();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .eTag(categoriesJson.getETag())
+                .lastModified(categoriesJson.getLastModified())
+                .body(categoriesJson.getBytes());
     }
 
     @GetMapping("/{name}")
-    @ResponseStatus(HttpStatus.OK)
-    public CategoryDTO getCategoryByName(@PathVariable String name){
-        return categoryService.getCategoryByName(name);
+    public ResponseEntity<CategoryDTO> getCategoryByName(@PathVariable String name){
+        CategoryDTO categoryDTO = categoryService.getCategoryByName(name);
+        ResourceVersion categoryVersion = ResourceVersion.of(categoryDTO.getVersion(), categoryDTO.getLastModified());
+        return ResponseEntity.ok()
+                .eTag(categoryVersion.getETag())
+                .lastModified(categoryVersion.getLastModified())
+                .body(categoryDTO);
     }
 }
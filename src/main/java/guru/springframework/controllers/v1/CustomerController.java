@@ -1,15 +1,31 @@
 package guru.springframework.controllers.v1;
 
+import guru.springframework.api.v1.model.CustomerBatchResultDTO;
 import guru.springframework.api.v1.model.CustomerDTO;
 import guru.springframework.api.v1.model.CustomerListDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.config.ReactiveConfig;
 import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.services.CustomerService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Profile("!" + ReactiveConfig.REACTIVE_PROFILE)
 @RequestMapping({CustomerController.CUSTOMER_BASE_URL})
 public class CustomerController {
 
@@ -21,15 +37,72 @@ public class CustomerController {
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public CustomerListDTO getAllCustomers() {
+    public CustomerListDTO getAllCustomers(WebRequest request, HttpServletResponse response) {
+        // the body can be JSON, Smile or CBOR (see JacksonConfig), caches must key it by Accept as well.
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // answer 304 from the cheap aggregate version query before loading or serializing anything.
+        ResourceVersion customersVersion = customerService.getCustomersVersion();
+        if(request.checkNotModified(customersVersion.getETag(), customersVersion.getLastModified())) {
+            return null;
+        }
         return new CustomerListDTO(customerService.getAllCustomers());
     }
 
-    @GetMapping("/{id}")
+    /**
+     * Same body as getAllCustomers(), but the query runs on the bounded list executor and the request thread is
+     * released meanwhile. Answers 503 with a Retry-After header when that executor is saturated.
+     */
+    @GetMapping("/async")
+    public CompletableFuture<CustomerListDTO> getAllCustomersAsync() {
+        return customerService.getAllCustomersAsync().thenApply(CustomerListDTO::new);
+    }
+
+    // keyset paginated variant of the list above, e.g. /api/v1/customers?limit=50&after=1234
+    // limit is capped at MAX_PAGE_SIZE, a limit below 1 is a 400.
+    @GetMapping(params = "limit")
+    @ResponseStatus(HttpStatus.OK)
+    public CustomerPageDTO getCustomerPage(@RequestParam int limit, @RequestParam(required = false) Long after) {
+        return customerService.getCustomerPage(after, limit);
+    }
+
+    // name prefix search, e.g. /api/v1/customers/search?lastname=Fr&firstname=B&size=20, keyset paginated:
+    // the next_url carries the afterLastname, afterFirstname and afterId of the last row as the cursor.
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    public CustomerPageDTO searchCustomers(@RequestParam String lastname,
+                                           @RequestParam(required = false) String firstname,
+                                           @RequestParam(required = false) String afterLastname,
+                                           @RequestParam(required = false) String afterFirstname,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "20") int size) {
+        CustomerSummary after = afterId == null ? null : new CustomerSummary(afterId, afterFirstname, afterLastname);
+        return customerService.searchCustomers(lastname, firstname, after, size);
+    }
+
+    // full text search over first and last names, best matches first, e.g. /api/v1/customers/search?q=bob+frank
+    @GetMapping(value = "/search", params = "q")
     @ResponseStatus(HttpStatus.OK)
-    public CustomerDTO getCustomerById(@PathVariable Long id) {
-        return customerService.getCustomerById(id);
+    public CustomerListDTO searchCustomersByText(@RequestParam String q,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        return new CustomerListDTO(customerService.searchCustomersByText(q, limit));
+    }
+
+    // several customers in one request, e.g. /api/v1/customers?ids=1,2,3
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public CustomerMultiGetDTO getCustomersByIds(@RequestParam List<Long> ids) {
+        return customerService.getCustomersByIds(ids);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getCustomerById(@PathVariable Long id) {
+        // served from the already encoded body in the service's JSON cache.
+        CachedJson customerJson = customerService.getCustomerJsonById(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .eTag(customerJson.getETag())
+                .lastModified(customerJson.getLastModified())
+                .body(customerJson.getBytes());
     }
 
     @PostMapping
@@ -39,6 +112,13 @@ public class CustomerController {
         return customerService.createNewCustomer(customerDTO);
     }
 
+    // creates many customers in one request, the result lists the outcome of every customer in request order.
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public CustomerBatchResultDTO createNewCustomers(@RequestBody List<CustomerDTO> customerDTOS) {
+        return new CustomerBatchResultDTO(customerService.createNewCustomers(customerDTOS));
+    }
+
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public CustomerDTO updateCustomer(@PathVariable Long id, @RequestBody CustomerDTO customerDTO) {
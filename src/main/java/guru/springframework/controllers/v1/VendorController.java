@@ -1,33 +1,115 @@
 package guru.springframework.controllers.v1;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import guru.springframework.api.v1.model.VendorBulkPatchDTO;
+import guru.springframework.api.v1.model.VendorBulkResultDTO;
 import guru.springframework.api.v1.model.VendorDTO;
 import guru.springframework.api.v1.model.VendorListDTO;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.services.VendorService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Profile("!" + ReactiveConfig.REACTIVE_PROFILE)
 @RequestMapping(VendorController.VENDOR_BASE_URL)
 public class VendorController {
 
     public static final String VENDOR_BASE_URL = "/api/v1/vendors";
 
     private VendorService vendorService;
+    // the export writes vendors one by one, a writer for the type skips the serializer lookup per vendor.
+    private ObjectWriter vendorWriter;
 
-    public VendorController(VendorService vendorService) {
+    public VendorController(VendorService vendorService, ObjectMapper objectMapper) {
         this.vendorService = vendorService;
+        this.vendorWriter = objectMapper.writerFor(VendorDTO.class);
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public VendorListDTO getAllVendors() {
+    public VendorListDTO getAllVendors(WebRequest request, HttpServletResponse response) {
+        // the body can be JSON, Smile or CBOR (see JacksonConfig), caches must key it by Accept as well.
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // answer 304 from the cheap aggregate version query before loading or serializing anything.
+        ResourceVersion vendorsVersion = vendorService.getVendorsVersion();
+        if(request.checkNotModified(vendorsVersion.getETag(), vendorsVersion.getLastModified())) {
+            return null;
+        }
         return new VendorListDTO(vendorService.getAllVendors());
     }
 
-    @GetMapping("/{id}")
+    /**
+     * Same body as getAllVendors(), but the query runs on the bounded list executor and the request thread is
+     * released meanwhile. Answers 503 with a Retry-After header when that executor is saturated.
+     */
+    @GetMapping("/async")
+    public CompletableFuture<VendorListDTO> getAllVendorsAsync() {
+        return vendorService.getAllVendorsAsync().thenApply(VendorListDTO::new);
+    }
+
+    /**
+     * Same body as getAllVendors() but each vendor is written to the response as soon as it is read,
+     * so memory use stays flat no matter how many vendors there are.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public void exportVendors(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+
+        try (JsonGenerator generator = vendorWriter.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("vendors");
+            vendorService.exportVendors(vendorDTO -> {
+                try {
+                    vendorWriter.writeValue(generator, vendorDTO);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    // full text search over the names, best matches first, e.g. /api/v1/vendors/search?q=cola
+    @GetMapping(value = "/search", params = "q")
+    @ResponseStatus(HttpStatus.OK)
+    public VendorListDTO searchVendors(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return new VendorListDTO(vendorService.searchVendorsByText(q, limit));
+    }
+
+    // several vendors in one request, e.g. /api/v1/vendors?ids=1,2,3
+    @GetMapping(params = "ids")
     @ResponseStatus(HttpStatus.OK)
-    public VendorDTO getVendorById(@PathVariable Long id) {
-        return vendorService.getVendorById(id);
+    public VendorMultiGetDTO getVendorsByIds(@RequestParam List<Long> ids) {
+        return vendorService.getVendorsByIds(ids);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getVendorById(@PathVariable Long id) {
+        // served from the already encoded body in the service's JSON cache.
+        CachedJson vendorJson = vendorService.getVendorJsonById(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .eTag(vendorJson.getETag())
+                .lastModified(vendorJson.getLastModified())
+                .body(vendorJson.getBytes());
     }
 
     @PostMapping
@@ -48,9 +130,22 @@ public class VendorController {
         return vendorService.patchVendor(id, vendorDTO);
     }
 
+    @PatchMapping
+    @ResponseStatus(HttpStatus.OK)
+    public VendorBulkResultDTO patchVendors(@Valid @RequestBody VendorBulkPatchDTO vendorBulkPatchDTO) {
+        return new VendorBulkResultDTO(
+                vendorService.patchVendors(vendorBulkPatchDTO.getIds(), vendorBulkPatchDTO.getVendor()));
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public void deleteVendor(@PathVariable Long id) {
         vendorService.deleteVendorById(id);
     }
+
+    @DeleteMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public VendorBulkResultDTO deleteVendors(@RequestParam List<Long> ids) {
+        return new VendorBulkResultDTO(vendorService.deleteVendorsByIds(ids));
+    }
 }
@@ -1,17 +1,26 @@
 package guru.springframework.domain;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Version;
+import java.time.Instant;
 
 /**
  * Created by jt on 9/24/17.
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category {
 
     @Id
@@ -19,4 +28,14 @@ public class Category {
     private Long id;
     private String name;
 
+    // upper(name), computed by the database (see V2__category_name_indexes.sql) for case-insensitive lookups.
+    @Column(insertable = false, updatable = false)
+    private String nameNormalized;
+
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant lastModified;
+
 }
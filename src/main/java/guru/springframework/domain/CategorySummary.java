@@ -0,0 +1,12 @@
+package guru.springframework.domain;
+
+import lombok.Value;
+
+/**
+ * Category list row, see CustomerSummary.
+ */
+@Value
+public class CategorySummary {
+    Long id;
+    String name;
+}
@@ -0,0 +1,14 @@
+package guru.springframework.domain;
+
+import lombok.Value;
+
+/**
+ * Just the columns the customer list, page and search endpoints need, selected with a constructor expression.
+ * Unlike a Customer it is never managed, so hibernate keeps no persistence context entry or snapshot for it.
+ */
+@Value
+public class CustomerSummary {
+    Long id;
+    String firstname;
+    String lastname;
+}
@@ -0,0 +1,40 @@
+package guru.springframework.domain;
+
+import java.time.Instant;
+
+/**
+ * HTTP validators (ETag and Last-Modified) for a single entity or for a whole collection of them.
+ */
+public final class ResourceVersion {
+
+    private final String eTag;
+    private final long lastModified;
+
+    private ResourceVersion(String eTag, Instant lastModified) {
+        this.eTag = "\"" + eTag + "\"";
+        this.lastModified = lastModified == null ? 0L : lastModified.toEpochMilli();
+    }
+
+    /**
+     * Used by the repositories' aggregate queries. Inserts change the count and the max id, deletes the count
+     * and updates bump the sum of the versions, so any change to the collection changes the ETag.
+     */
+    public ResourceVersion(Long count, Long maxId, Long versionSum, Instant lastModified) {
+        this(count + "-" + maxId + "-" + versionSum, lastModified);
+    }
+
+    public static ResourceVersion of(Long version, Instant lastModified) {
+        return new ResourceVersion(String.valueOf(version), lastModified);
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return the last modification time in epoch millis.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,12 @@
+package guru.springframework.domain;
+
+import lombok.Value;
+
+/**
+ * Vendor list / export / search row, see CustomerSummary.
+ */
+@Value
+public class VendorSummary {
+    Long id;
+    String name;
+}
@@ -0,0 +1,53 @@
+package guru.springframework.metrics;
+
+import guru.springframework.cache.CategoryCache;
+import guru.springframework.cache.JsonResponseCache;
+import guru.springframework.cache.LocalCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+
+/**
+ * Publishes the hit / miss / eviction counts and sizes of the in-process caches, read from the caches' own
+ * counters only when the registry is scraped.
+ */
+public class CacheMetrics implements MeterBinder {
+
+    private final CategoryCache categoryCache;
+    private final List<JsonResponseCache> jsonResponseCaches;
+
+    public CacheMetrics(CategoryCache categoryCache, List<JsonResponseCache> jsonResponseCaches) {
+        this.categoryCache = categoryCache;
+        this.jsonResponseCaches = jsonResponseCaches;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, categoryCache.getCategoriesByName());
+        bind(registry, categoryCache.getAllCategoriesJson());
+        jsonResponseCaches.forEach(jsonResponseCache -> bind(registry, jsonResponseCache.getResponses()));
+    }
+
+    private void bind(MeterRegistry registry, LocalCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, LocalCache::hitCount)
+                .tag("cache", cache.getName())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, LocalCache::missCount)
+                .tag("cache", cache.getName())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, LocalCache::evictionCount)
+                .tag("cache", cache.getName())
+                .register(registry);
+        Gauge.builder("cache.size", cache, LocalCache::size)
+                .tag("cache", cache.getName())
+                .register(registry);
+        Gauge.builder("cache.weight", cache, LocalCache::weight)
+                .tag("cache", cache.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,89 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every service and Spring Data repository call as "app.method", tagged with the service / repository
+ * interface, the method and the exception (if any). Controllers are already timed by Spring Boot as
+ * "http.server.requests".
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    public static final String METRIC_NAME = "app.method";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    // looking a timer up in the registry builds its tags every time, so the successful path is cached per method.
+    private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // the reactive services only assemble a Mono / Flux around the services timed here, timing them says nothing.
+    @Around("(execution(public * guru.springframework.services..*Service+.*(..)) && " +
+            "!within(guru.springframework.services.Reactive*)) || " +
+            "execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timer(joinPoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable throwable) {
+            timer(joinPoint, throwable.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw throwable;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+
+        Map<Method, Timer> methodTimers = timers.get(targetClass);
+        if(methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = methodTimers.get(method);
+        if(timer == null) {
+            timer = methodTimers.computeIfAbsent(method, key -> timer(joinPoint, NO_EXCEPTION));
+        }
+        return timer;
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .tag("class", componentName(joinPoint.getTarget().getClass()))
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The application interface a bean implements (CustomerService, CustomerRepository, ...), repositories
+     * are proxies so their class name says nothing.
+     */
+    static String componentName(Class<?> targetClass) {
+        for(Class<?> type : targetClass.getInterfaces()) {
+            if(type.getName().startsWith("guru.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return targetClass.getSimpleName();
+    }
+}
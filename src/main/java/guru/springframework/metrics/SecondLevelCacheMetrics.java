@@ -0,0 +1,42 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hit ratios of hibernate's second level cache regions and of the query cache. HibernateMetrics already
+ * publishes the raw hit / miss counts, the ratios are what the caches get tuned by. Needs generate_statistics.
+ */
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for(String region : statistics.getSecondLevelCacheRegionNames()) {
+            SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+            Gauge.builder("hibernate.cache.hit.ratio", regionStatistics,
+                    stats -> ratio(stats.getHitCount(), stats.getMissCount()))
+                    .tag("region", region)
+                    .register(registry);
+        }
+        Gauge.builder("hibernate.cache.query.hit.ratio", statistics,
+                stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                .register(registry);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
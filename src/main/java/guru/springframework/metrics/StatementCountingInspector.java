@@ -0,0 +1,85 @@
+package guru.springframework.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares into the counter bound to the current thread, so the count can be
+ * recorded per request. Registered with hibernate.session_factory.statement_inspector, it only counts and never
+ * changes the sql. Statements run on a thread without a counter (startup, scheduled work) are not counted.
+ *
+ * The counter belongs to the request, not to the thread: it is bound again on the async dispatch and handed to
+ * the threads the request's work runs on (see propagate() and countingInto()).
+ * A BatchLoader batch is loaded by the thread that leads it, so all of its statements are counted for that
+ * request and none for the requests whose ids joined the batch.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger statements = STATEMENTS.get();
+        if(statements != null) {
+            statements.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Counts the statements of the current thread into the given counter, returns the counter it replaces so it
+     * can be put back with restore().
+     */
+    public static AtomicInteger bind(AtomicInteger statements) {
+        AtomicInteger previous = STATEMENTS.get();
+        STATEMENTS.set(statements);
+        return previous;
+    }
+
+    public static void restore(AtomicInteger previous) {
+        if(previous == null) {
+            STATEMENTS.remove();
+        } else {
+            STATEMENTS.set(previous);
+        }
+    }
+
+    /**
+     * TaskDecorator for the executors a request hands its work to: the task counts into the submitting
+     * thread's counter.
+     */
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger statements = STATEMENTS.get();
+        if(statements == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = bind(statements);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs the call counting into the given counter, for work that does not stay on the request's thread and
+     * carries its counter some other way (the reactor context of the reactive services).
+     */
+    public static <T> Callable<T> countingInto(AtomicInteger statements, Callable<T> call) {
+        if(statements == null) {
+            return call;
+        }
+        return () -> {
+            AtomicInteger previous = bind(statements);
+            try {
+                return call.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how many SQL statements each request ran as "http.server.requests.statements", tagged like
+ * Spring Boot's request timer (method and uri template) so it can be lined up with the latency per endpoint.
+ *
+ * The counter is kept on the request, so an async request is recorded once, on its async dispatch, with the
+ * statements run on the list executor (which propagates the counter) included.
+ */
+public class StatementMetricsInterceptor extends HandlerInterceptorAdapter {
+
+    public static final String METRIC_NAME = "http.server.requests.statements";
+
+    private static final String STATEMENTS_ATTRIBUTE = StatementMetricsInterceptor.class.getName() + ".statements";
+    private static final String PREVIOUS_ATTRIBUTE = StatementMetricsInterceptor.class.getName() + ".previous";
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async dispatch carries on with the counter of the request it belongs to.
+        AtomicInteger statements = (AtomicInteger) request.getAttribute(STATEMENTS_ATTRIBUTE);
+        if(statements == null) {
+            statements = new AtomicInteger();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+        }
+        request.setAttribute(PREVIOUS_ATTRIBUTE, StatementCountingInspector.bind(statements));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // the container thread goes back to the pool, the request is recorded when it is dispatched again.
+        unbind(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        unbind(request);
+        AtomicInteger statements = (AtomicInteger) request.getAttribute(STATEMENTS_ATTRIBUTE);
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        meterRegistry.summary(METRIC_NAME,
+                "method", request.getMethod(),
+                "uri", uri == null ? "UNKNOWN" : uri.toString())
+                .record(statements == null ? 0 : statements.get());
+    }
+
+    private static void unbind(HttpServletRequest request) {
+        StatementCountingInspector.restore((AtomicInteger) request.getAttribute(PREVIOUS_ATTRIBUTE));
+        request.removeAttribute(PREVIOUS_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,54 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebFlux counterpart of StatementMetricsInterceptor, records the same metric. A reactive request has no thread of
+ * its own, so its counter travels in the reactor context and the reactive services count their jdbc calls into it
+ * with counted(). The vendor export reads its cursor on a jdbc thread of its own and is not counted.
+ */
+public class StatementMetricsWebFilter implements WebFilter {
+
+    private static final String STATEMENTS_KEY = StatementMetricsWebFilter.class.getName() + ".statements";
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsWebFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        AtomicInteger statements = new AtomicInteger();
+        // recorded when the response is committed, by then the body has been produced.
+        exchange.getResponse().beforeCommit(() -> {
+            Object uri = exchange.getAttributes().get(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            meterRegistry.summary(StatementMetricsInterceptor.METRIC_NAME,
+                    "method", exchange.getRequest().getMethodValue(),
+                    "uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .record(statements.get());
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .subscriberContext(Context.of(STATEMENTS_KEY, statements));
+    }
+
+    /**
+     * Calls the blocking call on subscription, counting its statements for the request it is part of (if any).
+     */
+    public static <T> Mono<T> counted(Callable<T> call) {
+        return Mono.subscriberContext().flatMap(context -> {
+            AtomicInteger statements = context.getOrDefault(STATEMENTS_KEY, null);
+            return Mono.fromCallable(StatementCountingInspector.countingInto(statements, call));
+        });
+    }
+}
@@ -1,11 +1,34 @@
 package guru.springframework.repositories;
 
 import guru.springframework.domain.Category;
+import guru.springframework.domain.CategorySummary;
+import guru.springframework.domain.ResourceVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 /**
  * Created by jt on 9/24/17.
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    // the result ids come from the query cache, the categories themselves from the second level cache.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Category findByName(String name);
+
+    // the name has to be upper cased already, an upper() around the column would not use its index.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Category findByNameNormalized(String nameNormalized);
+
+    // list rows only, see CustomerRepository.
+    @Query("select new guru.springframework.domain.CategorySummary(c.id, c.name) from Category c")
+    List<CategorySummary> findAllSummaries();
+
+    @Query("select new guru.springframework.domain.ResourceVersion(count(c), max(c.id), sum(c.version), max(c.lastModified)) " +
+            "from Category c")
+    ResourceVersion findResourceVersion();
 }
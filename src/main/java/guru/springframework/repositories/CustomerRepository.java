@@ -1,7 +1,78 @@
 package guru.springframework.repositories;
 
 import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.ResourceVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    // the read-only list / search queries below select only these columns, no entities are loaded.
+    String SELECT_SUMMARY = "select new guru.springframework.domain.CustomerSummary(c.id, c.firstname, c.lastname) " +
+            "from Customer c ";
+
+    String ORDER_BY_NAME = "order by c.lastname, c.firstname, c.id";
+
+    // (c.lastname, c.firstname, c.id) > (:afterLastname, :afterFirstname, :afterId) spelled out, hibernate has no
+    // row value comparison for H2. Null first names sort first: a null :afterFirstname is followed by the
+    // remaining nulls (by id), then by every first name.
+    String AFTER_NAME = "(c.lastname > :afterLastname or c.lastname = :afterLastname and (" +
+            "c.firstname > :afterFirstname or c.firstname = :afterFirstname and c.id > :afterId " +
+            "or :afterFirstname is null and (c.firstname is not null or c.id > :afterId))) ";
+
+    @Query(SELECT_SUMMARY)
+    List<CustomerSummary> findAllSummaries();
+
+    @Query(SELECT_SUMMARY + "where c.id in :ids")
+    List<CustomerSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset (seek) pagination: only rows after the given id are read, so the cost of a page does not
+     * grow with how far the client has scrolled. The pageable should always be for page 0 so no OFFSET is issued.
+     */
+    @Query(SELECT_SUMMARY + "where c.id > :id order by c.id")
+    List<CustomerSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Prefix searches backed by the (lastname, firstname, id) index, the patterns are "prefix%" with '!' as the
+     * escape character. Keyset paginated like findSummariesByIdGreaterThan: the ...After variants seek past the
+     * last row of the previous page instead of skipping an OFFSET, the pageable should always be for page 0.
+     */
+    @Query(SELECT_SUMMARY + "where c.lastname like :lastname escape '!' " + ORDER_BY_NAME)
+    List<CustomerSummary> searchByLastname(@Param("lastname") String lastnamePattern, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where c.lastname like :lastname escape '!' and " + AFTER_NAME + ORDER_BY_NAME)
+    List<CustomerSummary> searchByLastnameAfter(@Param("lastname") String lastnamePattern,
+                                                @Param("afterLastname") String afterLastname,
+                                                @Param("afterFirstname") String afterFirstname,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where c.lastname like :lastname escape '!' " +
+            "and c.firstname like :firstname escape '!' " + ORDER_BY_NAME)
+    List<CustomerSummary> searchByLastnameAndFirstname(@Param("lastname") String lastnamePattern,
+                                                       @Param("firstname") String firstnamePattern,
+                                                       Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where c.lastname like :lastname escape '!' " +
+            "and c.firstname like :firstname escape '!' and " + AFTER_NAME + ORDER_BY_NAME)
+    List<CustomerSummary> searchByLastnameAndFirstnameAfter(@Param("lastname") String lastnamePattern,
+                                                            @Param("firstname") String firstnamePattern,
+                                                            @Param("afterLastname") String afterLastname,
+                                                            @Param("afterFirstname") String afterFirstname,
+                                                            @Param("afterId") Long afterId,
+                                                            Pageable pageable);
+
+    @Query("select c.version from Customer c where c.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    @Query("select new guru.springframework.domain.ResourceVersion(count(c), max(c.id), sum(c.version), max(c.lastModified)) " +
+            "from Customer c")
+    ResourceVersion findResourceVersion();
 }
@@ -0,0 +1,19 @@
+package guru.springframework.repositories;
+
+import java.time.Instant;
+
+/**
+ * Patches a customer with a single UPDATE ... WHERE id = ?, without loading it first. There is one statement per
+ * set of patched fields so only those columns are written (what dynamic-update would do for a loaded entity).
+ * Each returns the number of updated rows, 0 if there is no such customer.
+ *
+ * The statements are native so only the patched customer is evicted from the second level cache, see NativeWrites.
+ */
+public interface CustomerRepositoryCustom {
+
+    int updateNamesById(Long id, String firstname, String lastname, Instant lastModified);
+
+    int updateFirstnameById(Long id, String firstname, Instant lastModified);
+
+    int updateLastnameById(Long id, String lastname, Instant lastModified);
+}
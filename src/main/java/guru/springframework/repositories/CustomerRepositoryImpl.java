@@ -0,0 +1,52 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.Customer;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+
+@Transactional
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    // a native statement skips @Version / @UpdateTimestamp, so both are set here.
+    private static final String VERSION_COLUMNS = "version = version + 1, last_modified = :lastModified ";
+
+    private final EntityManager entityManager;
+
+    public CustomerRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateNamesById(Long id, String firstname, String lastname, Instant lastModified) {
+        return update(entityManager
+                .createNativeQuery("update customer set firstname = :firstname, lastname = :lastname, "
+                        + VERSION_COLUMNS + "where id = :id")
+                .setParameter("firstname", firstname)
+                .setParameter("lastname", lastname), id, lastModified);
+    }
+
+    @Override
+    public int updateFirstnameById(Long id, String firstname, Instant lastModified) {
+        return update(entityManager
+                .createNativeQuery("update customer set firstname = :firstname, " + VERSION_COLUMNS + "where id = :id")
+                .setParameter("firstname", firstname), id, lastModified);
+    }
+
+    @Override
+    public int updateLastnameById(Long id, String lastname, Instant lastModified) {
+        return update(entityManager
+                .createNativeQuery("update customer set lastname = :lastname, " + VERSION_COLUMNS + "where id = :id")
+                .setParameter("lastname", lastname), id, lastModified);
+    }
+
+    private int update(Query update, Long id, Instant lastModified) {
+        update.setParameter("id", id)
+                .setParameter("lastModified", Timestamp.from(lastModified));
+        return NativeWrites.executeUpdate(entityManager, update, Customer.class, Collections.singletonList(id));
+    }
+}
@@ -0,0 +1,57 @@
+package guru.springframework.repositories;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.Collection;
+
+/**
+ * Runs native UPDATE / DELETE statements that evict only the rows they wrote from the second level cache.
+ *
+ * Hibernate can't tell which rows a bulk statement (JPQL or native) touches. It empties the whole cache region of
+ * every entity whose table is among the statement's query spaces, or of every entity if none are declared. For the
+ * customer PATCH, the most frequent write, that meant throwing the whole Customer region away on every request.
+ * These statements declare a query space that no entity and no cached query uses, so Hibernate clears nothing,
+ * and the written ids are evicted instead: right away and again after the commit.
+ *
+ * The trade-off: a read that loads one of the rows just before the commit, and only puts it into the cache after
+ * the second eviction, leaves the old row cached until the region's ttl (ehcache.xml). Hibernate only guards
+ * against that (with soft locks) for writes of loaded entities, not for bulk statements.
+ */
+final class NativeWrites {
+
+    static final String QUERY_SPACE = "native_writes";
+
+    private NativeWrites() {
+    }
+
+    /**
+     * @param ids of the entityType rows the statement writes.
+     */
+    static int executeUpdate(EntityManager entityManager, Query statement, Class<?> entityType, Collection<?> ids) {
+        // the declared query space doesn't match any entity, so pending changes aren't flushed automatically.
+        entityManager.flush();
+        int updated = statement.unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE)
+                .executeUpdate();
+        // loaded entities are stale now, same as @Modifying(clearAutomatically = true).
+        entityManager.clear();
+
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(entityType, id));
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a concurrent read may have cached the old row again before the commit.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> cache.evict(entityType, id));
+                }
+            });
+        }
+        return updated;
+    }
+}
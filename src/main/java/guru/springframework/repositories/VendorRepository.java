@@ -1,7 +1,54 @@
 package guru.springframework.repositories;
 
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.domain.Vendor;
+import guru.springframework.domain.VendorSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface VendorRepository extends JpaRepository<Vendor, Long> {
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface VendorRepository extends JpaRepository<Vendor, Long>, VendorRepositoryCustom {
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    // list / export / search rows, see CustomerRepository.
+    String SELECT_SUMMARY = "select new guru.springframework.domain.VendorSummary(v.id, v.name) from Vendor v ";
+
+    @Query(SELECT_SUMMARY)
+    List<VendorSummary> findAllSummaries();
+
+    @Query(SELECT_SUMMARY + "where v.id in :ids")
+    List<VendorSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select v.id from Vendor v where v.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Walks every vendor through an open JDBC cursor instead of materializing the whole table.
+     * Must be consumed (and closed) inside a transaction. Only the summary columns are read so nothing ends up
+     * in the persistence context or the second level cache.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_SUMMARY)
+    Stream<VendorSummary> streamAllSummaries();
+
+    // keyset pagination, see CustomerRepository.
+    @Query(SELECT_SUMMARY + "where v.id > :id order by v.id")
+    List<VendorSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("select v.version from Vendor v where v.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    @Query("select new guru.springframework.domain.ResourceVersion(count(v), max(v.id), sum(v.version), max(v.lastModified)) " +
+            "from Vendor v")
+    ResourceVersion findResourceVersion();
 }
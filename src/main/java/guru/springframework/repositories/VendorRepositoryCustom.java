@@ -0,0 +1,21 @@
+package guru.springframework.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Set based vendor writes, nothing is loaded first. The statements are native so only the written vendors are
+ * evicted from the second level cache, see NativeWrites.
+ */
+public interface VendorRepositoryCustom {
+
+    /**
+     * Single DELETE ... WHERE id IN (...). Returns the number of deleted vendors.
+     */
+    int deleteByIdIn(Collection<Long> ids);
+
+    /**
+     * Single UPDATE ... WHERE id IN (...). Returns the number of updated vendors.
+     */
+    int updateNameByIdIn(String name, Instant lastModified, Collection<Long> ids);
+}
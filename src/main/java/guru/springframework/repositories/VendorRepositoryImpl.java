@@ -0,0 +1,40 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.Vendor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+
+@Transactional
+public class VendorRepositoryImpl implements VendorRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public VendorRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int deleteByIdIn(Collection<Long> ids) {
+        Query delete = entityManager
+                .createNativeQuery("delete from vendor where id in (:ids)")
+                .setParameter("ids", ids);
+        return NativeWrites.executeUpdate(entityManager, delete, Vendor.class, ids);
+    }
+
+    @Override
+    public int updateNameByIdIn(String name, Instant lastModified, Collection<Long> ids) {
+        // a native statement skips @Version / @UpdateTimestamp, so both are set here.
+        Query update = entityManager
+                .createNativeQuery("update vendor set name = :name, version = version + 1, "
+                        + "last_modified = :lastModified where id in (:ids)")
+                .setParameter("name", name)
+                .setParameter("lastModified", Timestamp.from(lastModified))
+                .setParameter("ids", ids);
+        return NativeWrites.executeUpdate(entityManager, update, Vendor.class, ids);
+    }
+}
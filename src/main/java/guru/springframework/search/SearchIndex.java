@@ -0,0 +1,227 @@
+package guru.springframework.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory Lucene index of one text per id (e.g. a vendor's name), for ranked token / prefix / fuzzy matching
+ * without querying the database. Only ids are kept, the caller loads whatever it returns.
+ *
+ * Writes become searchable within the reopen thread's max staleness (about a second). Writes made inside a
+ * transaction are applied once it commits, so a rolled back write never shows up.
+ */
+public class SearchIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String TEXT = "text";
+
+    private static final double MAX_STALE_SECONDS = 1.0;
+    private static final double MIN_STALE_SECONDS = 0.025;
+
+    private final String name;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory = new RAMDirectory();
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    public SearchIndex(String name) {
+        this.name = name;
+        try {
+            this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create search index " + name, e);
+        }
+        this.reopenThread = new ControlledRealTimeReopenThread<>(indexWriter, searcherManager,
+                MAX_STALE_SECONDS, MIN_STALE_SECONDS);
+        this.reopenThread.setName("search-index-" + name);
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+    }
+
+    public void index(Long id, String text) {
+        afterCommit(() -> {
+            Document document = new Document();
+            document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+            document.add(new TextField(TEXT, text == null ? "" : text, Field.Store.NO));
+            indexWriter.updateDocument(new Term(ID, String.valueOf(id)), document);
+        });
+    }
+
+    public void index(Collection<Long> ids, String text) {
+        ids.forEach(id -> index(id, text));
+    }
+
+    public void delete(Long id) {
+        delete(Collections.singletonList(id));
+    }
+
+    public void delete(Collection<Long> ids) {
+        afterCommit(() -> {
+            for(Long id : ids) {
+                indexWriter.deleteDocuments(new Term(ID, String.valueOf(id)));
+            }
+        });
+    }
+
+    public void deleteAll() {
+        afterCommit(indexWriter::deleteAll);
+    }
+
+    /**
+     * Makes everything written so far searchable, e.g. after the initial bulk build.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Every token of the text matches exactly, as a prefix, or within one or two typos (depending on its length).
+     * The more and the closer the tokens match, the higher the id is ranked.
+     *
+     * @return the ids of the best matches, best first.
+     */
+    public List<Long> search(String text, int limit) {
+        Query query = buildQuery(text);
+        if(query == null) {
+            return Collections.emptyList();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                List<Long> ids = new ArrayList<>();
+                for(ScoreDoc scoreDoc : searcher.search(query, Math.max(1, limit)).scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(scoreDoc.doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return indexWriter.numDocs();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    private Query buildQuery(String text) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean empty = true;
+        for(String token : tokenize(text)) {
+            Term term = new Term(TEXT, token);
+            BooleanQuery.Builder tokenQuery = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(term), 4f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(term), 2f), BooleanClause.Occur.SHOULD);
+            if(token.length() > 2) {
+                tokenQuery.add(new FuzzyQuery(term, token.length() > 5 ? 2 : 1), BooleanClause.Occur.SHOULD);
+            }
+            query.add(tokenQuery.build(), BooleanClause.Occur.SHOULD);
+            empty = false;
+        }
+        return empty ? null : query.build();
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if(text == null) {
+            return tokens;
+        }
+        try (TokenStream tokenStream = analyzer.tokenStream(TEXT, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while(tokenStream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private void afterCommit(IndexUpdate update) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                // the write itself is committed, failing now would only turn its response into an error.
+                // the index misses it until the next rebuild.
+                try {
+                    apply(update);
+                } catch (RuntimeException e) {
+                    log.error("Unable to apply a committed write to search index {}", name, e);
+                }
+            }
+        });
+    }
+
+    private void apply(IndexUpdate update) {
+        try {
+            update.apply();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to update search index " + name, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void apply() throws IOException;
+    }
+}
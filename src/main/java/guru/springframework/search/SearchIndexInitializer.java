@@ -0,0 +1,29 @@
+package guru.springframework.search;
+
+import guru.springframework.services.CustomerService;
+import guru.springframework.services.VendorService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The search indexes live in memory only, so they are built from the database on every start. Ready fires after
+ * the command line runners, so the bootstrap data is indexed too.
+ */
+@Component
+public class SearchIndexInitializer {
+
+    private final CustomerService customerService;
+    private final VendorService vendorService;
+
+    public SearchIndexInitializer(CustomerService customerService, VendorService vendorService) {
+        this.customerService = customerService;
+        this.vendorService = vendorService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndexes() {
+        customerService.rebuildSearchIndex();
+        vendorService.rebuildSearchIndex();
+    }
+}
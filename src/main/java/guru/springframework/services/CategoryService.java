@@ -1,6 +1,7 @@
 package guru.springframework.services;
 
 import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.cache.CachedJson;
 
 import java.util.List;
 
@@ -8,5 +9,10 @@ public interface CategoryService {
 
     List<CategoryDTO> getAllCategories();
 
+    /**
+     * The full category list already serialized as a {"categories":[...]} JSON document.
+     */
+    CachedJson getAllCategoriesJson();
+
     CategoryDTO getCategoryByName(String name);
 }
@@ -1,12 +1,25 @@
 package guru.springframework.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import guru.springframework.api.v1.mapper.CategoryMapper;
 import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.api.v1.model.CategoryListDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.cache.CategoryCache;
+import guru.springframework.cache.SingleFlight;
+import guru.springframework.config.ReplicaRoutingDataSource;
 import guru.springframework.domain.Category;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.repositories.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
@@ -14,27 +27,65 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ObjectWriter categoryListWriter;
+    private final boolean ignoreCase;
+    // concurrent misses for the same name share one query.
+    private final SingleFlight<String, CategoryDTO> categoryLookups;
 
-    public CategoryServiceImpl(CategoryMapper categoryMapper, CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryMapper categoryMapper, CategoryRepository categoryRepository,
+                               CategoryCache categoryCache, ObjectMapper objectMapper,
+                               @Value("${categories.lookup.ignore-case:false}") boolean ignoreCase,
+                               MeterRegistry meterRegistry) {
         this.categoryMapper = categoryMapper;
         this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
+        this.categoryListWriter = objectMapper.writerFor(CategoryListDTO.class);
+        this.ignoreCase = ignoreCase;
+        this.categoryLookups = new SingleFlight<>("categories.by-name", meterRegistry);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll()
+        return categoryRepository.findAllSummaries()
                 .stream()
-                .map(categoryMapper::categoryToCategoryDTO)
+                .map(categoryMapper::categorySummaryToCategoryDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CachedJson getAllCategoriesJson() {
+        // cached, so read from the primary, see ReplicaRoutingDataSource.
+        return categoryCache.getAllAsJson(() -> ReplicaRoutingDataSource.readFromPrimary(() -> {
+            try {
+                ResourceVersion categoriesVersion = categoryRepository.findResourceVersion();
+                return CachedJson.of(categoryListWriter.writeValueAsBytes(new CategoryListDTO(getAllCategories())),
+                        categoriesVersion);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize categories", e);
+            }
+        }));
+    }
+
     @Override
     public CategoryDTO getCategoryByName(String name) {
-        Category category = categoryRepository.findByName(name);
-        if(category == null) {
+        // with ignore-case every spelling of a name shares one cache entry.
+        String lookupName = ignoreCase ? name.toUpperCase(Locale.ROOT) : name;
+        CategoryDTO categoryDTO = categoryCache.getByName(lookupName,
+                categoryName -> categoryLookups.execute(categoryName, this::findCategoryByName));
+        if(categoryDTO == null) {
             throw new ResourceNotFoundException();
         }
-        return categoryMapper.categoryToCategoryDTO(category);
+        return categoryDTO;
+
+    }
 
+    // cached (and query cached), so read from the primary.
+    private CategoryDTO findCategoryByName(String name) {
+        Category category = ReplicaRoutingDataSource.readFromPrimary(() -> ignoreCase
+                ? categoryRepository.findByNameNormalized(name)
+                : categoryRepository.findByName(name));
+        return category == null ? null : categoryMapper.categoryToCategoryDTO(category);
     }
 }
@@ -1,13 +1,29 @@
 package guru.springframework.services;
 
+import guru.springframework.api.v1.model.CustomerBatchItemDTO;
 import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.ResourceVersion;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface CustomerService {
     List<CustomerDTO> getAllCustomers();
+    CompletableFuture<List<CustomerDTO>> getAllCustomersAsync();
+    ResourceVersion getCustomersVersion();
+    CustomerPageDTO getCustomerPage(Long after, int limit);
+    CustomerPageDTO searchCustomers(String lastname, String firstname, CustomerSummary after, int size);
+    List<CustomerDTO> searchCustomersByText(String text, int limit);
+    void rebuildSearchIndex();
     CustomerDTO getCustomerById(Long id);
+    CustomerMultiGetDTO getCustomersByIds(List<Long> ids);
+    CachedJson getCustomerJsonById(Long id);
     CustomerDTO createNewCustomer(CustomerDTO customerDTO);
+    List<CustomerBatchItemDTO> createNewCustomers(List<CustomerDTO> customerDTOS);
     CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO);
     CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO);
     void deleteCustomerById(Long id);
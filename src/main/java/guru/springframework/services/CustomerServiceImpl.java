@@ -1,37 +1,219 @@
 package guru.springframework.services;
 
 import guru.springframework.api.v1.mapper.CustomerMapper;
+import guru.springframework.api.v1.model.CustomerBatchItemDTO;
 import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.cache.JsonResponseCache;
+import guru.springframework.cache.SingleFlight;
+import guru.springframework.config.AsyncConfig;
+import guru.springframework.config.BatchLoaderConfig;
+import guru.springframework.config.CacheConfig;
+import guru.springframework.config.SearchConfig;
 import guru.springframework.controllers.v1.CustomerController;
 import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.repositories.CustomerRepository;
+import guru.springframework.search.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomerServiceImpl implements CustomerService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    // ids per IN (...) list of a multi-get.
+    static final int ID_CHUNK_SIZE = 500;
+
     private final CustomerMapper customerMapper;
     private final CustomerRepository customerRepository;
+    private final JsonResponseCache customerJsonCache;
+    private final BatchLoader<Long, Customer> customerLoader;
+    private final SearchIndex customerSearchIndex;
+    private final int batchChunkSize;
+    // concurrent lookups of the same customer share one query, see findCustomerDTO().
+    private final SingleFlight<Long, CustomerDTO> customerLookups;
 
-    public CustomerServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerMapper customerMapper, CustomerRepository customerRepository,
+                               @Qualifier(CacheConfig.CUSTOMER_JSON_CACHE) JsonResponseCache customerJsonCache,
+                               @Qualifier(BatchLoaderConfig.CUSTOMER_LOADER) BatchLoader<Long, Customer> customerLoader,
+                               @Qualifier(SearchConfig.CUSTOMER_SEARCH_INDEX) SearchIndex customerSearchIndex,
+                               @Value("${customers.batch.chunk-size:1000}") int batchChunkSize,
+                               MeterRegistry meterRegistry) {
+        if(batchChunkSize < 1) {
+            throw new IllegalArgumentException("customers.batch.chunk-size must be at least 1, was " + batchChunkSize);
+        }
         this.customerMapper = customerMapper;
         this.customerRepository = customerRepository;
+        this.customerJsonCache = customerJsonCache;
+        this.customerLoader = customerLoader;
+        this.customerSearchIndex = customerSearchIndex;
+        this.batchChunkSize = batchChunkSize;
+        this.customerLookups = new SingleFlight<>("customers.by-id", meterRegistry);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
+        // list rows carry no version, the list endpoints use getCustomersVersion() for their headers.
         return customerRepository
-                .findAll()
+                .findAllSummaries()
+                .stream()
+                .map(customerMapper::customerSummaryToCustomerDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Async(AsyncConfig.LIST_EXECUTOR)
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<CustomerDTO>> getAllCustomersAsync() {
+        return CompletableFuture.completedFuture(getAllCustomers());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getCustomersVersion() {
+        return customerRepository.findResourceVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPageDTO getCustomerPage(Long after, int limit) {
+        if(limit < 1) {
+            throw new InvalidRequestException("limit must be at least 1, was " + limit);
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        long cursor = after == null ? 0L : after;
+
+        // ask for one extra row so we know if there is a next page without running a count query.
+        List<CustomerSummary> customers = customerRepository
+                .findSummariesByIdGreaterThan(cursor, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNextPage = customers.size() > pageSize;
+        List<CustomerDTO> customerDTOS = customers
                 .stream()
-                .map(customer -> {
-                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
-                    customerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + customer.getId());
-                    return customerDTO;
-                })
+                .limit(pageSize)
+                .map(customerMapper::customerSummaryToCustomerDTO)
                 .collect(Collectors.toList());
+
+        String nextUrl = null;
+        if(hasNextPage) {
+            nextUrl = UriComponentsBuilder
+                    .fromPath(CustomerController.CUSTOMER_BASE_URL)
+                    .queryParam("limit", pageSize)
+                    .queryParam("after", customers.get(pageSize - 1).getId())
+                    .build()
+                    .encode()
+                    .toUriString();
+        }
+        return new CustomerPageDTO(customerDTOS, nextUrl);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerPageDTO searchCustomers(String lastname, String firstname, CustomerSummary after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if(lastname == null || lastname.isEmpty()) {
+            // an empty prefix would match (and scan) everything.
+            return new CustomerPageDTO(new ArrayList<>(), null);
+        }
+
+        // one extra row tells if there is a next page, see getCustomerPage().
+        boolean byFirstname = firstname != null && !firstname.isEmpty();
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<CustomerSummary> customers;
+        if(after == null) {
+            customers = byFirstname
+                    ? customerRepository.searchByLastnameAndFirstname(prefixPattern(lastname),
+                            prefixPattern(firstname), pageRequest)
+                    : customerRepository.searchByLastname(prefixPattern(lastname), pageRequest);
+        } else {
+            customers = byFirstname
+                    ? customerRepository.searchByLastnameAndFirstnameAfter(prefixPattern(lastname),
+                            prefixPattern(firstname), after.getLastname(), after.getFirstname(), after.getId(),
+                            pageRequest)
+                    : customerRepository.searchByLastnameAfter(prefixPattern(lastname),
+                            after.getLastname(), after.getFirstname(), after.getId(), pageRequest);
+        }
+
+        List<CustomerDTO> customerDTOS = customers
+                .stream()
+                .limit(pageSize)
+                .map(customerMapper::customerSummaryToCustomerDTO)
+                .collect(Collectors.toList());
+
+        String nextUrl = null;
+        if(customers.size() > pageSize) {
+            // the next page starts after the last row of this one.
+            CustomerSummary last = customers.get(pageSize - 1);
+            UriComponentsBuilder nextPage = UriComponentsBuilder
+                    .fromPath(CustomerController.CUSTOMER_BASE_URL + "/search")
+                    .queryParam("lastname", lastname);
+            if(byFirstname) {
+                nextPage.queryParam("firstname", firstname);
+            }
+            nextPage.queryParam("afterLastname", last.getLastname());
+            if(last.getFirstname() != null) {
+                nextPage.queryParam("afterFirstname", last.getFirstname());
+            }
+            nextUrl = nextPage
+                    .queryParam("afterId", last.getId())
+                    .queryParam("size", pageSize)
+                    .build()
+                    .encode()
+                    .toUriString();
+        }
+        return new CustomerPageDTO(customerDTOS, nextUrl);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> searchCustomersByText(String text, int limit) {
+        // the matching and ranking happen in the search index, only the hits are loaded.
+        List<Long> ids = customerSearchIndex.search(text, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return getCustomersByIds(ids)
+                .getCustomers()
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void rebuildSearchIndex() {
+        customerSearchIndex.deleteAll();
+        // walks the table with keyset pages, see getCustomerPage().
+        List<CustomerSummary> customers;
+        long lastId = 0L;
+        do {
+            customers = customerRepository.findSummariesByIdGreaterThan(lastId, PageRequest.of(0, MAX_PAGE_SIZE));
+            customers.forEach(customer -> customerSearchIndex.index(customer.getId(),
+                    searchText(customer.getFirstname(), customer.getLastname())));
+            if(!customers.isEmpty()) {
+                lastId = customers.get(customers.size() - 1).getId();
+            }
+        } while(customers.size() == MAX_PAGE_SIZE);
+        customerSearchIndex.refresh();
     }
 
     @Override
@@ -41,14 +223,47 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = optionalCustomer.get();
         return customerMapper.customerToCustomerDTO(customer);
         */
-        return customerRepository
-                .findById(id)
-                .map(customer -> {
-                    CustomerDTO customerDTO = customerMapper.customerToCustomerDTO(customer);
-                    customerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + customer.getId());
-                    return customerDTO;
-                }).orElseThrow(ResourceNotFoundException::new);
+        CustomerDTO customerDTO = customerLookups.execute(id, this::findCustomerDTO);
+        if(customerDTO == null) {
+            throw new ResourceNotFoundException();
+        }
+        return customerDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerMultiGetDTO getCustomersByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        Map<Long, CustomerDTO> customersById = new HashMap<>();
+        for(int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+            customerRepository
+                    .findSummariesByIdIn(distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size())))
+                    .forEach(customer -> customersById.put(customer.getId(),
+                            customerMapper.customerSummaryToCustomerDTO(customer)));
+        }
 
+        List<CustomerDTO> customerDTOS = new ArrayList<>(ids.size());
+        List<Long> notFound = new ArrayList<>();
+        for(Long id : ids) {
+            CustomerDTO customerDTO = customersById.get(id);
+            customerDTOS.add(customerDTO);
+            if(customerDTO == null) {
+                notFound.add(id);
+            }
+        }
+        return new CustomerMultiGetDTO(customerDTOS, notFound);
+    }
+
+    // not @Transactional: a read-only transaction takes a connection up front, even when the JSON cache answers.
+    // misses run in the repository's own read-only transaction.
+    @Override
+    public CachedJson getCustomerJsonById(Long id) {
+        CachedJson customerJson = customerJsonCache.get(id,
+                customerId -> customerLookups.execute(customerId, this::findCustomerDTO));
+        if(customerJson == null) {
+            throw new ResourceNotFoundException();
+        }
+        return customerJson;
     }
 
     @Override
@@ -56,38 +271,135 @@ public class CustomerServiceImpl implements CustomerService {
         return saveAndReturnCustomerDTO(customerMapper.customerDTOToCustomer(customerDTO));
     }
 
+    @Override
+    public List<CustomerBatchItemDTO> createNewCustomers(List<CustomerDTO> customerDTOS) {
+        List<CustomerBatchItemDTO> results = new ArrayList<>(customerDTOS.size());
+        for(int from = 0; from < customerDTOS.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, customerDTOS.size());
+            results.addAll(createNewCustomerChunk(customerDTOS.subList(from, to), from));
+        }
+        return results;
+    }
+
+    /**
+     * Each chunk is saved in its own transaction (saveAll), so hibernate can send the inserts as JDBC batches.
+     * If the chunk is rejected the customers are retried one at a time to find out which ones failed. Only
+     * rejected data is retried and reported per item, anything else (lost connection, pool timeout, ...) fails
+     * the whole request.
+     */
+    private List<CustomerBatchItemDTO> createNewCustomerChunk(List<CustomerDTO> chunk, int offset) {
+        List<CustomerBatchItemDTO> results = new ArrayList<>(chunk.size());
+        try {
+            List<Customer> savedCustomers = customerRepository.saveAll(chunk
+                    .stream()
+                    .map(customerMapper::customerDTOToCustomer)
+                    .collect(Collectors.toList()));
+            for(int i = 0; i < savedCustomers.size(); i++) {
+                indexCustomer(savedCustomers.get(i));
+                results.add(new CustomerBatchItemDTO(offset + i, HttpStatus.CREATED.value(),
+                        customerMapper.customerToCustomerDTO(savedCustomers.get(i)), null));
+            }
+        } catch (DataIntegrityViolationException chunkException) {
+            for(int i = 0; i < chunk.size(); i++) {
+                try {
+                    results.add(new CustomerBatchItemDTO(offset + i, HttpStatus.CREATED.value(),
+                            createNewCustomer(chunk.get(i)), null));
+                } catch (DataIntegrityViolationException e) {
+                    results.add(new CustomerBatchItemDTO(offset + i, HttpStatus.BAD_REQUEST.value(), null,
+                            e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
     private CustomerDTO saveAndReturnCustomerDTO(Customer customer) {
         Customer savedCustomer = customerRepository.save(customer);
+        customerJsonCache.invalidate(savedCustomer.getId());
+        indexCustomer(savedCustomer);
 
-        CustomerDTO returnedCustomer = customerMapper.customerToCustomerDTO(savedCustomer);
-        returnedCustomer.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + savedCustomer.getId());
+        return customerMapper.customerToCustomerDTO(savedCustomer);
+    }
+
+    /**
+     * Only ever called through customerLookups. The DTO it returns can be handed to several callers at once,
+     * so it must not be modified afterwards.
+     */
+    private CustomerDTO findCustomerDTO(Long id) {
+        Customer customer = customerLoader.load(id);
+        return customer == null ? null : customerMapper.customerToCustomerDTO(customer);
+    }
 
-        return returnedCustomer;
+    private void indexCustomer(Customer customer) {
+        customerSearchIndex.index(customer.getId(), searchText(customer.getFirstname(), customer.getLastname()));
+    }
+
+    private static String searchText(String firstname, String lastname) {
+        return (firstname == null ? "" : firstname) + " " + (lastname == null ? "" : lastname);
+    }
+
+    // user input is matched literally, only the trailing % is a wildcard.
+    static String prefixPattern(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
     }
 
     @Override
     public CustomerDTO saveCustomerByDTO(Long id, CustomerDTO customerDTO) {
+        // a PUT replaces the whole customer, so it is applied on top of whatever version is current.
+        Long version = customerRepository.findVersionById(id);
+        if(version == null) {
+            throw new ResourceNotFoundException();
+        }
         Customer customer = customerMapper.customerDTOToCustomer(customerDTO);
         customer.setId(id);
+        customer.setVersion(version);
 
         return saveAndReturnCustomerDTO(customer);
     }
 
     @Override
+    @Transactional
     public CustomerDTO patchCustomer(Long id, CustomerDTO customerDTO) {
-        return customerRepository.findById(id).map(customer -> {
-            if(customerDTO.getFirstname() != null) {
-                customer.setFirstname(customerDTO.getFirstname());
-            }
-            if(customerDTO.getLastname() != null) {
-                customer.setLastname(customerDTO.getLastname());
-            }
-            return saveAndReturnCustomerDTO(customer);
-        }).orElseThrow(RuntimeException::new);
+        String firstname = customerDTO.getFirstname();
+        String lastname = customerDTO.getLastname();
+        if(firstname == null && lastname == null) {
+            // nothing to change: the row, its version and the caches are left alone.
+            return getCustomerById(id);
+        }
+        Instant lastModified = Instant.now();
+        int updated;
+        if(firstname == null) {
+            updated = customerRepository.updateLastnameById(id, lastname, lastModified);
+        } else if(lastname == null) {
+            updated = customerRepository.updateFirstnameById(id, firstname, lastModified);
+        } else {
+            updated = customerRepository.updateNamesById(id, firstname, lastname, lastModified);
+        }
+        if(updated == 0) {
+            throw new ResourceNotFoundException();
+        }
+        customerJsonCache.invalidateAfterCommit(id);
+
+        if(firstname != null && lastname != null) {
+            // every field came with the patch, so the response can be built without reading the row back.
+            CustomerDTO patchedCustomerDTO = new CustomerDTO();
+            patchedCustomerDTO.setFirstname(firstname);
+            patchedCustomerDTO.setLastname(lastname);
+            patchedCustomerDTO.setId(id);
+            customerSearchIndex.index(id, searchText(firstname, lastname));
+            return patchedCustomerDTO;
+        }
+        Customer patchedCustomer = customerRepository
+                .findById(id)
+                .orElseThrow(ResourceNotFoundException::new);
+        indexCustomer(patchedCustomer);
+        return customerMapper.customerToCustomerDTO(patchedCustomer);
     }
 
     @Override
     public void deleteCustomerById(Long id) {
         customerRepository.deleteById(id);
+        customerJsonCache.invalidate(id);
+        customerSearchIndex.delete(id);
     }
 }
@@ -0,0 +1,10 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.cache.CachedJson;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCategoryService {
+    Mono<CachedJson> getAllCategoriesJson();
+    Mono<CategoryDTO> getCategoryByName(String name);
+}
@@ -0,0 +1,40 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.metrics.StatementMetricsWebFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Reactive face of CategoryServiceImpl. Categories are almost always served from the category cache,
+ * the jdbc scheduler is only really used on a cache miss.
+ */
+@Service
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveCategoryServiceImpl implements ReactiveCategoryService {
+
+    private final CategoryService categoryService;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveCategoryServiceImpl(CategoryService categoryService,
+                                       @Qualifier(ReactiveConfig.JDBC_SCHEDULER) Scheduler jdbcScheduler) {
+        this.categoryService = categoryService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @Override
+    public Mono<CachedJson> getAllCategoriesJson() {
+        return StatementMetricsWebFilter.counted(categoryService::getAllCategoriesJson).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<CategoryDTO> getCategoryByName(String name) {
+        return StatementMetricsWebFilter.counted(() -> categoryService.getCategoryByName(name))
+                .subscribeOn(jdbcScheduler);
+    }
+}
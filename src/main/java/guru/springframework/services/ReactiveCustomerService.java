@@ -0,0 +1,25 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.CustomerBatchItemDTO;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.domain.ResourceVersion;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveCustomerService {
+    Flux<CustomerDTO> getAllCustomers();
+    Mono<ResourceVersion> getCustomersVersion();
+    Mono<CustomerPageDTO> getCustomerPage(Long after, int limit);
+    Mono<CustomerMultiGetDTO> getCustomersByIds(List<Long> ids);
+    Mono<CachedJson> getCustomerJsonById(Long id);
+    Mono<CustomerDTO> createNewCustomer(CustomerDTO customerDTO);
+    Flux<CustomerBatchItemDTO> createNewCustomers(List<CustomerDTO> customerDTOS);
+    Mono<CustomerDTO> saveCustomerByDTO(Long id, CustomerDTO customerDTO);
+    Mono<CustomerDTO> patchCustomer(Long id, CustomerDTO customerDTO);
+    Mono<Void> deleteCustomerById(Long id);
+}
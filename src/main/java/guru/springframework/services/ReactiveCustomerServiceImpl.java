@@ -0,0 +1,94 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.CustomerBatchItemDTO;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.domain.ResourceVersion;
+import guru.springframework.metrics.StatementMetricsWebFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Reactive face of CustomerServiceImpl: every call runs on the bounded jdbc scheduler, so the caching,
+ * mapping and invalidation rules stay in one place and the event loop never blocks on JDBC.
+ */
+@Service
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    private final CustomerService customerService;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveCustomerServiceImpl(CustomerService customerService,
+                                       @Qualifier(ReactiveConfig.JDBC_SCHEDULER) Scheduler jdbcScheduler) {
+        this.customerService = customerService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @Override
+    public Flux<CustomerDTO> getAllCustomers() {
+        return blocking(customerService::getAllCustomers).flatMapIterable(customers -> customers);
+    }
+
+    @Override
+    public Mono<ResourceVersion> getCustomersVersion() {
+        return blocking(customerService::getCustomersVersion);
+    }
+
+    @Override
+    public Mono<CustomerPageDTO> getCustomerPage(Long after, int limit) {
+        return blocking(() -> customerService.getCustomerPage(after, limit));
+    }
+
+    @Override
+    public Mono<CustomerMultiGetDTO> getCustomersByIds(List<Long> ids) {
+        return blocking(() -> customerService.getCustomersByIds(ids));
+    }
+
+    @Override
+    public Mono<CachedJson> getCustomerJsonById(Long id) {
+        return blocking(() -> customerService.getCustomerJsonById(id));
+    }
+
+    @Override
+    public Mono<CustomerDTO> createNewCustomer(CustomerDTO customerDTO) {
+        return blocking(() -> customerService.createNewCustomer(customerDTO));
+    }
+
+    @Override
+    public Flux<CustomerBatchItemDTO> createNewCustomers(List<CustomerDTO> customerDTOS) {
+        return blocking(() -> customerService.createNewCustomers(customerDTOS)).flatMapIterable(results -> results);
+    }
+
+    @Override
+    public Mono<CustomerDTO> saveCustomerByDTO(Long id, CustomerDTO customerDTO) {
+        return blocking(() -> customerService.saveCustomerByDTO(id, customerDTO));
+    }
+
+    @Override
+    public Mono<CustomerDTO> patchCustomer(Long id, CustomerDTO customerDTO) {
+        return blocking(() -> customerService.patchCustomer(id, customerDTO));
+    }
+
+    @Override
+    public Mono<Void> deleteCustomerById(Long id) {
+        return blocking(() -> {
+            customerService.deleteCustomerById(id);
+            return null;
+        }).then();
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return StatementMetricsWebFilter.counted(call).subscribeOn(jdbcScheduler);
+    }
+}
@@ -0,0 +1,24 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.domain.ResourceVersion;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveVendorService {
+    Flux<VendorDTO> getAllVendors();
+    Mono<ResourceVersion> getVendorsVersion();
+    Flux<VendorDTO> exportVendors();
+    Mono<VendorDTO> createNewVendor(VendorDTO vendorDTO);
+    Mono<VendorMultiGetDTO> getVendorsByIds(List<Long> ids);
+    Mono<CachedJson> getVendorJsonById(Long id);
+    Mono<VendorDTO> updateVendor(Long id, VendorDTO vendorDTO);
+    Mono<VendorDTO> patchVendor(Long id, VendorDTO vendorDTO);
+    Mono<Void> deleteVendorById(Long id);
+    Mono<Integer> deleteVendorsByIds(List<Long> ids);
+    Mono<Integer> patchVendors(List<Long> ids, VendorDTO vendorDTO);
+}
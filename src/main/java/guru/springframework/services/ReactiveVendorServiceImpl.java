@@ -0,0 +1,152 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.config.ReactiveConfig;
+import guru.springframework.domain.ResourceVersion;
+import guru.springframework.metrics.StatementMetricsWebFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Reactive face of VendorServiceImpl, every call runs on the bounded jdbc scheduler.
+ */
+@Service
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveVendorServiceImpl implements ReactiveVendorService {
+
+    private final VendorService vendorService;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveVendorServiceImpl(VendorService vendorService,
+                                     @Qualifier(ReactiveConfig.JDBC_SCHEDULER) Scheduler jdbcScheduler) {
+        this.vendorService = vendorService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @Override
+    public Flux<VendorDTO> getAllVendors() {
+        return blocking(vendorService::getAllVendors).flatMapIterable(vendors -> vendors);
+    }
+
+    @Override
+    public Mono<ResourceVersion> getVendorsVersion() {
+        return blocking(vendorService::getVendorsVersion);
+    }
+
+    /**
+     * Emits the vendors while the export cursor is being read. The cursor is held by a jdbc thread until the
+     * last vendor is read, or until the subscriber cancels.
+     * The cursor is only read as fast as the subscriber requests vendors, so a slow client does not make the
+     * whole table pile up in the sink's buffer.
+     */
+    @Override
+    public Flux<VendorDTO> exportVendors() {
+        return Flux.<VendorDTO>create(sink -> {
+            ExportDemand demand = new ExportDemand(sink);
+            sink.onRequest(requested -> demand.signal());
+            sink.onCancel(demand::signal);
+            try {
+                vendorService.exportVendors(vendorDTO -> {
+                    demand.await();
+                    sink.next(vendorDTO);
+                });
+                sink.complete();
+            } catch (CancellationException e) {
+                // the subscriber went away, the export transaction is rolled back and the cursor closed.
+            } catch (RuntimeException e) {
+                sink.error(e);
+            }
+        }).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<VendorDTO> createNewVendor(VendorDTO vendorDTO) {
+        return blocking(() -> vendorService.createNewVendor(vendorDTO));
+    }
+
+    @Override
+    public Mono<VendorMultiGetDTO> getVendorsByIds(List<Long> ids) {
+        return blocking(() -> vendorService.getVendorsByIds(ids));
+    }
+
+    @Override
+    public Mono<CachedJson> getVendorJsonById(Long id) {
+        return blocking(() -> vendorService.getVendorJsonById(id));
+    }
+
+    @Override
+    public Mono<VendorDTO> updateVendor(Long id, VendorDTO vendorDTO) {
+        return blocking(() -> vendorService.updateVendor(id, vendorDTO));
+    }
+
+    @Override
+    public Mono<VendorDTO> patchVendor(Long id, VendorDTO vendorDTO) {
+        return blocking(() -> vendorService.patchVendor(id, vendorDTO));
+    }
+
+    @Override
+    public Mono<Void> deleteVendorById(Long id) {
+        return blocking(() -> {
+            vendorService.deleteVendorById(id);
+            return null;
+        }).then();
+    }
+
+    @Override
+    public Mono<Integer> deleteVendorsByIds(List<Long> ids) {
+        return blocking(() -> vendorService.deleteVendorsByIds(ids));
+    }
+
+    @Override
+    public Mono<Integer> patchVendors(List<Long> ids, VendorDTO vendorDTO) {
+        return blocking(() -> vendorService.patchVendors(ids, vendorDTO));
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return StatementMetricsWebFilter.counted(call).subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Makes the export's jdbc thread wait until the subscriber has asked for another vendor. The read-only
+     * export transaction is bound to that one thread, so the cursor cannot simply be pulled by whichever
+     * thread requests more (as Flux.fromStream() would).
+     */
+    private static final class ExportDemand {
+
+        private final FluxSink<?> sink;
+
+        private ExportDemand(FluxSink<?> sink) {
+            this.sink = sink;
+        }
+
+        private synchronized void signal() {
+            notifyAll();
+        }
+
+        // throws CancellationException once the subscriber has gone away.
+        private synchronized void await() {
+            while(!sink.isCancelled() && sink.requestedFromDownstream() == 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException();
+                }
+            }
+            if(sink.isCancelled()) {
+                throw new CancellationException();
+            }
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package guru.springframework.services;
 
 import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.domain.ResourceVersion;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface VendorService {
     List<VendorDTO> getAllVendors();
+    CompletableFuture<List<VendorDTO>> getAllVendorsAsync();
+    ResourceVersion getVendorsVersion();
+    void exportVendors(Consumer<VendorDTO> vendorConsumer);
     VendorDTO createNewVendor(VendorDTO vendorDTO);
     VendorDTO getVendorById(Long id);
+    VendorMultiGetDTO getVendorsByIds(List<Long> ids);
+    List<VendorDTO> searchVendorsByText(String text, int limit);
+    void rebuildSearchIndex();
+    CachedJson getVendorJsonById(Long id);
     VendorDTO updateVendor(Long id, VendorDTO vendorDTO);
     VendorDTO patchVendor(Long id, VendorDTO vendorDTO);
     void deleteVendorById(Long id);
+    int deleteVendorsByIds(List<Long> ids);
+    int patchVendors(List<Long> ids, VendorDTO vendorDTO);
 }
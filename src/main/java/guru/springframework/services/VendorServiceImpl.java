@@ -2,33 +2,92 @@ package guru.springframework.services;
 
 import guru.springframework.api.v1.mapper.VendorMapper;
 import guru.springframework.api.v1.model.VendorDTO;
-import guru.springframework.controllers.v1.VendorController;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.cache.JsonResponseCache;
+import guru.springframework.config.AsyncConfig;
+import guru.springframework.config.BatchLoaderConfig;
+import guru.springframework.config.CacheConfig;
+import guru.springframework.config.SearchConfig;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.domain.Vendor;
+import guru.springframework.domain.VendorSummary;
 import guru.springframework.repositories.VendorRepository;
+import guru.springframework.search.SearchIndex;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class VendorServiceImpl implements VendorService {
 
+    // keeps the IN (...) lists of the bulk statements at a size every database handles well.
+    static final int BULK_CHUNK_SIZE = 1000;
+    // ids per IN (...) list of a multi-get.
+    static final int ID_CHUNK_SIZE = 500;
+
     private final VendorMapper vendorMapper;
     private final VendorRepository vendorRepository;
+    private final JsonResponseCache vendorJsonCache;
+    private final BatchLoader<Long, Vendor> vendorLoader;
+    private final SearchIndex vendorSearchIndex;
 
-    public VendorServiceImpl(VendorMapper vendorMapper, VendorRepository vendorRepository) {
+    public VendorServiceImpl(VendorMapper vendorMapper, VendorRepository vendorRepository,
+                             @Qualifier(CacheConfig.VENDOR_JSON_CACHE) JsonResponseCache vendorJsonCache,
+                             @Qualifier(BatchLoaderConfig.VENDOR_LOADER) BatchLoader<Long, Vendor> vendorLoader,
+                             @Qualifier(SearchConfig.VENDOR_SEARCH_INDEX) SearchIndex vendorSearchIndex) {
         this.vendorMapper = vendorMapper;
         this.vendorRepository = vendorRepository;
+        this.vendorJsonCache = vendorJsonCache;
+        this.vendorLoader = vendorLoader;
+        this.vendorSearchIndex = vendorSearchIndex;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<VendorDTO> getAllVendors() {
-        return vendorRepository.findAll()
+        return vendorRepository.findAllSummaries()
                 .stream()
-                .map(this::getVendorDTO)
+                .map(vendorMapper::vendorSummaryToVendorDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Async(AsyncConfig.LIST_EXECUTOR)
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<VendorDTO>> getAllVendorsAsync() {
+        return CompletableFuture.completedFuture(getAllVendors());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getVendorsVersion() {
+        return vendorRepository.findResourceVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportVendors(Consumer<VendorDTO> vendorConsumer) {
+        // summaries are plain objects, the persistence context does not grow with the table.
+        try (Stream<VendorSummary> vendors = vendorRepository.streamAllSummaries()) {
+            vendors.forEach(vendor -> vendorConsumer.accept(vendorMapper.vendorSummaryToVendorDTO(vendor)));
+        }
+    }
+
     @Override
     public VendorDTO createNewVendor(VendorDTO vendorDTO) {
         return saveVendorAndReturnVendorDTO(vendorMapper.vendorDTOToVendor(vendorDTO));
@@ -36,15 +95,86 @@ public class VendorServiceImpl implements VendorService {
 
     @Override
     public VendorDTO getVendorById(Long id) {
-        return vendorRepository.findById(id)
-                .map(vendorMapper::vendorToVendorDTO)
-                .orElseThrow(ResourceNotFoundException::new);
+        Vendor vendor = vendorLoader.load(id);
+        if(vendor == null) {
+            throw new ResourceNotFoundException();
+        }
+        return vendorMapper.vendorToVendorDTO(vendor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VendorMultiGetDTO getVendorsByIds(List<Long> ids) {
+        List<Long> distinctIds = distinct(ids);
+        Map<Long, VendorDTO> vendorsById = new HashMap<>();
+        for(int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+            vendorRepository
+                    .findSummariesByIdIn(distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size())))
+                    .forEach(vendor -> vendorsById.put(vendor.getId(), vendorMapper.vendorSummaryToVendorDTO(vendor)));
+        }
+
+        List<VendorDTO> vendorDTOS = new ArrayList<>(ids.size());
+        List<Long> notFound = new ArrayList<>();
+        for(Long id : ids) {
+            VendorDTO vendorDTO = vendorsById.get(id);
+            vendorDTOS.add(vendorDTO);
+            if(vendorDTO == null) {
+                notFound.add(id);
+            }
+        }
+        return new VendorMultiGetDTO(vendorDTOS, notFound);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VendorDTO> searchVendorsByText(String text, int limit) {
+        // the matching and ranking happen in the search index, only the hits are loaded (with a single IN query).
+        List<Long> ids = vendorSearchIndex.search(text, Math.max(1, Math.min(limit, ID_CHUNK_SIZE)));
+        return getVendorsByIds(ids)
+                .getVendors()
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void rebuildSearchIndex() {
+        vendorSearchIndex.deleteAll();
+        // walks the table with keyset pages, the vendors are only needed for their names.
+        List<VendorSummary> vendors;
+        long lastId = 0L;
+        do {
+            vendors = vendorRepository.findSummariesByIdGreaterThan(lastId, PageRequest.of(0, BULK_CHUNK_SIZE));
+            vendors.forEach(vendor -> vendorSearchIndex.index(vendor.getId(), vendor.getName()));
+            if(!vendors.isEmpty()) {
+                lastId = vendors.get(vendors.size() - 1).getId();
+            }
+        } while(vendors.size() == BULK_CHUNK_SIZE);
+        vendorSearchIndex.refresh();
+    }
+
+    @Override
+    public CachedJson getVendorJsonById(Long id) {
+        CachedJson vendorJson = vendorJsonCache.get(id, vendorId -> {
+            Vendor vendor = vendorLoader.load(vendorId);
+            return vendor == null ? null : vendorMapper.vendorToVendorDTO(vendor);
+        });
+        if(vendorJson == null) {
+            throw new ResourceNotFoundException();
+        }
+        return vendorJson;
     }
 
     @Override
     public VendorDTO updateVendor(Long id, VendorDTO vendorDTO) {
+        // a PUT replaces the whole vendor, so it is applied on top of whatever version is current.
+        Long version = vendorRepository.findVersionById(id);
+        if(version == null) {
+            throw new ResourceNotFoundException();
+        }
         Vendor vendorToSave = vendorMapper.vendorDTOToVendor(vendorDTO);
         vendorToSave.setId(id); // do this so when the save is called we update a vendor instead of create a new one.
+        vendorToSave.setVersion(version);
         return saveVendorAndReturnVendorDTO(vendorToSave);
     }
 
@@ -63,18 +193,58 @@ public class VendorServiceImpl implements VendorService {
     @Override
     public void deleteVendorById(Long id) {
         vendorRepository.deleteById(id);
+        vendorJsonCache.invalidate(id);
+        vendorSearchIndex.delete(id);
+    }
+
+    @Override
+    @Transactional
+    public int deleteVendorsByIds(List<Long> ids) {
+        List<Long> distinctIds = distinct(ids);
+        int deleted = 0;
+        for(int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            deleted += vendorRepository.deleteByIdIn(chunk(distinctIds, from));
+        }
+        vendorJsonCache.invalidateAfterCommit(distinctIds);
+        vendorSearchIndex.delete(distinctIds);
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int patchVendors(List<Long> ids, VendorDTO vendorDTO) {
+        if(vendorDTO.getName() == null) {
+            // name is the only field a patch can change, nothing to update.
+            return 0;
+        }
+        List<Long> distinctIds = distinct(ids);
+        // only the vendors that exist are updated and indexed, a missing id must not become a search hit.
+        List<Long> existingIds = new ArrayList<>(distinctIds.size());
+        for(int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            existingIds.addAll(vendorRepository.findIdsByIdIn(chunk(distinctIds, from)));
+        }
+        Instant lastModified = Instant.now();
+        int updated = 0;
+        for(int from = 0; from < existingIds.size(); from += BULK_CHUNK_SIZE) {
+            updated += vendorRepository.updateNameByIdIn(vendorDTO.getName(), lastModified, chunk(existingIds, from));
+        }
+        vendorJsonCache.invalidateAfterCommit(existingIds);
+        vendorSearchIndex.index(existingIds, vendorDTO.getName());
+        return updated;
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return ids.stream().distinct().collect(Collectors.toList());
     }
 
-    private VendorDTO getVendorDTO(Vendor vendor) {
-        VendorDTO vendorDTO = vendorMapper.vendorToVendorDTO(vendor);
-        vendorDTO.setVendorUrl(VendorController.VENDOR_BASE_URL + "/" + vendor.getId());
-        return vendorDTO;
+    private static List<Long> chunk(List<Long> ids, int from) {
+        return ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
     }
 
     private VendorDTO saveVendorAndReturnVendorDTO(Vendor vendor) {
         Vendor savedVendor = vendorRepository.save(vendor);
-        VendorDTO savedVendorDTO = vendorMapper.vendorToVendorDTO(savedVendor);
-        savedVendorDTO.setVendorUrl(VendorController.VENDOR_BASE_URL + "/" + savedVendor.getId());
-        return savedVendorDTO;
+        vendorJsonCache.invalidate(savedVendor.getId());
+        vendorSearchIndex.index(savedVendor.getId(), savedVendor.getName());
+        return vendorMapper.vendorToVendorDTO(savedVendor);
     }
 }
@@ -0,0 +1,28 @@
+-- the schema hibernate used to generate (ddl-auto), from here on it only validates it.
+
+create sequence customer_seq start with 1 increment by 500;
+
+create table category (
+    id bigint generated by default as identity,
+    name varchar(255),
+    version bigint,
+    last_modified timestamp,
+    primary key (id)
+);
+
+create table customer (
+    id bigint not null,
+    firstname varchar(255),
+    lastname varchar(255),
+    version bigint,
+    last_modified timestamp,
+    primary key (id)
+);
+
+create table vendor (
+    id bigint generated by default as identity,
+    name varchar(255),
+    version bigint,
+    last_modified timestamp,
+    primary key (id)
+);
@@ -0,0 +1,9 @@
+-- findByName was a full scan and nothing kept the names unique (a duplicate made findByName fail).
+create unique index category_name_idx on category (name);
+
+-- case-insensitive lookups compare against upper(name), kept up to date by the database. unique as well,
+-- names differing only in case would make findByNameNormalized fail just like duplicates did findByName.
+alter table category add column name_normalized varchar(255) as upper(name);
+create unique index category_name_normalized_idx on category (name_normalized);
+
+-- keyset paging (where id > ? order by id) on customers and vendors is served by the primary keys.
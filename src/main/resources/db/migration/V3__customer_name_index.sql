@@ -0,0 +1,2 @@
+-- backs the name prefix search (lastname like 'Fr%' [and firstname like 'B%']) and its order by.
+create index customer_name_idx on customer (lastname, firstname, id);
@@ -5,6 +5,7 @@ import guru.springframework.domain.Customer;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class CustomerMapperTest {
 
@@ -27,4 +28,19 @@ public class CustomerMapperTest {
         assertEquals(FIRST_NAME, customerDTO.getFirstname());
         assertEquals(LAST_NAME, customerDTO.getLastname());
     }
+
+    @Test
+    public void customerDTOToCustomerIgnoresId() throws Exception {
+        // given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(1L);
+        customerDTO.setFirstname(FIRST_NAME);
+
+        // when
+        Customer customer = customerMapper.customerDTOToCustomer(customerDTO);
+
+        // then
+        assertNull(customer.getId());
+        assertEquals(FIRST_NAME, customer.getFirstname());
+    }
 }
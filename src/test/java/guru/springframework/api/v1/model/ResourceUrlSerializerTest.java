@@ -0,0 +1,58 @@
+package guru.springframework.api.v1.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.controllers.v1.VendorController;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResourceUrlSerializerTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void writesTheIdAsUrl() throws Exception {
+        // given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Joe");
+        customerDTO.setId(Long.MAX_VALUE);
+
+        // when
+        String json = objectMapper.writeValueAsString(customerDTO);
+
+        // then
+        assertEquals("{\"firstname\":\"Joe\",\"lastname\":null,\"customer_url\":\""
+                + CustomerController.CUSTOMER_BASE_URL + "/" + Long.MAX_VALUE + "\"}", json);
+    }
+
+    @Test
+    public void reusesTheBufferForShorterIds() throws Exception {
+        // given
+        VendorDTO longId = new VendorDTO();
+        longId.setId(12345L);
+        VendorDTO shortId = new VendorDTO();
+        shortId.setId(0L);
+
+        // when
+        String json = objectMapper.writeValueAsString(new VendorListDTO(Arrays.asList(longId, shortId)));
+
+        // then
+        assertEquals("{\"vendors\":[{\"name\":null,\"vendor_url\":\"" + VendorController.VENDOR_BASE_URL + "/12345\"},"
+                + "{\"name\":null,\"vendor_url\":\"" + VendorController.VENDOR_BASE_URL + "/0\"}]}", json);
+    }
+
+    @Test
+    public void urlIsIgnoredInRequestBodies() throws Exception {
+        // when
+        CustomerDTO customerDTO = objectMapper.readValue(
+                "{\"firstname\":\"Joe\",\"customer_url\":\"/api/v1/customers/7\"}", CustomerDTO.class);
+
+        // then
+        assertEquals("Joe", customerDTO.getFirstname());
+        assertNull(customerDTO.getId());
+    }
+}
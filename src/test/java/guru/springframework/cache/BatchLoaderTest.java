@@ -0,0 +1,91 @@
+package guru.springframework.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class BatchLoaderTest {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void concurrentLoadsWithinTheWindowShareOneBatch() throws Exception {
+        // a window long enough for every caller to join, the batch is only loaded once it is full.
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::loadAll, Integer::valueOf,
+                3, TimeUnit.SECONDS.toMicros(30), meterRegistry);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for(int key = 1; key <= 3; key++) {
+                int k = key;
+                results.add(executor.submit(() -> loader.load(k)));
+            }
+
+            for(int key = 1; key <= 3; key++) {
+                assertEquals(String.valueOf(key), results.get(key - 1).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, batches.size());
+            assertEquals(Arrays.asList(1, 2, 3), batches.get(0).stream().sorted().collect(Collectors.toList()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void aLoneLoadIsDoneAfterTheWindow() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::loadAll, Integer::valueOf,
+                100, 1000, meterRegistry);
+
+        assertEquals("1", loader.load(1));
+        assertEquals("2", loader.load(2));
+        assertEquals(2, batches.size());
+        assertEquals(2, meterRegistry.summary("batchloader.batch.size", "name", "test").count());
+    }
+
+    @Test
+    public void missingKeysLoadAsNull() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::loadAll, Integer::valueOf,
+                100, 0, meterRegistry);
+
+        assertNull(loader.load(-1));
+    }
+
+    @Test
+    public void loadExceptionsAreRethrown() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+            throw new IllegalStateException("failed");
+        }, Integer::valueOf, 100, 0, meterRegistry);
+
+        try {
+            loader.load(1);
+            fail("expected the loader's exception");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+    }
+
+    // only the positive keys exist.
+    private List<String> loadAll(List<Integer> keys) {
+        batches.add(keys);
+        return keys.stream()
+                .filter(key -> key > 0)
+                .map(String::valueOf)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,112 @@
+package guru.springframework.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LocalCacheTest {
+
+    @Test
+    public void getLoadsOnMissAndHitsAfterwards() {
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, 1, TimeUnit.MINUTES);
+
+        assertEquals("a", cache.get("key", key -> "a"));
+        assertEquals("a", cache.get("key", key -> "b"));
+
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void nullValuesAreNotCached() {
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, 1, TimeUnit.MINUTES);
+
+        assertNull(cache.get("key", key -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void oldestEntriesAreEvictedWhenFull() {
+        LocalCache<String, String> cache = new LocalCache<>("test", 2, 1, TimeUnit.MINUTES);
+
+        cache.put("one", "1");
+        cache.put("two", "2");
+        cache.put("three", "3");
+
+        assertNull(cache.getIfPresent("one"));
+        assertEquals("3", cache.getIfPresent("three"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void cacheIsBoundedByWeight() {
+        LocalCache<String, byte[]> cache = new LocalCache<>("test", 10, 1, TimeUnit.MINUTES, value -> value.length);
+
+        cache.put("one", new byte[6]);
+        cache.put("two", new byte[6]);
+
+        assertNull(cache.getIfPresent("one"));
+        assertEquals(6, cache.weight());
+    }
+
+    @Test
+    public void expiredEntriesAreNotReturned() throws Exception {
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, 1, TimeUnit.MILLISECONDS);
+
+        cache.put("key", "value");
+        Thread.sleep(5);
+
+        assertNull(cache.getIfPresent("key"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void invalidateRemovesEntries() {
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, 1, TimeUnit.MINUTES);
+
+        cache.put("one", "1");
+        cache.put("two", "2");
+        cache.invalidate("one");
+        assertNull(cache.getIfPresent("one"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void replacedEntriesAreEvictedLast() {
+        LocalCache<String, String> cache = new LocalCache<>("test", 2, 1, TimeUnit.MINUTES);
+
+        cache.put("one", "1");
+        cache.put("two", "2");
+        cache.put("one", "1b");
+        cache.put("three", "3");
+
+        assertNull(cache.getIfPresent("two"));
+        assertEquals("1b", cache.getIfPresent("one"));
+        assertEquals(2, cache.weight());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void valuesLoadedBeforeAnInvalidateAreNotCached() {
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, 1, TimeUnit.MINUTES);
+
+        String loaded = cache.get("key", key -> {
+            // a write commits and invalidates the key while the old value is being loaded.
+            cache.invalidate(key);
+            return "old";
+        });
+
+        assertEquals("old", loaded);
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("new", cache.get("key", key -> "new"));
+        assertEquals("new", cache.getIfPresent("key"));
+    }
+}
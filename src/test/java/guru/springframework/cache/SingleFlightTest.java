@@ -0,0 +1,91 @@
+package guru.springframework.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void concurrentCallsForTheSameKeyShareOneLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("key", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "value";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<String> second = executor.submit(() -> singleFlight.execute("key", key -> {
+                loads.incrementAndGet();
+                return "other value";
+            }));
+            // give the second call time to join the running load before it completes.
+            while(singleFlight.coalescedCount() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(1, singleFlight.loadCount());
+            assertEquals(1, singleFlight.coalescedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void nothingIsKeptOnceTheLoadIsDone() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+        assertEquals("a", singleFlight.execute("key", key -> "a"));
+        assertEquals("b", singleFlight.execute("key", key -> "b"));
+        assertEquals(2, singleFlight.loadCount());
+        assertEquals(2, meterRegistry.get("singleflight.calls").tag("name", "test").tag("result", "load")
+                .functionCounter().count(), 0.0);
+    }
+
+    @Test
+    public void loaderExceptionsAreRethrown() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+        try {
+            singleFlight.execute("key", key -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("expected the loader's exception");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals("a", singleFlight.execute("key", key -> "a"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package guru.springframework.config;
+
+import guru.springframework.domain.Customer;
+import guru.springframework.repositories.CustomerRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchLoaderConfigTest {
+
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    Cache cache;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    Function<List<Long>, List<Customer>> loader;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        loader = BatchLoaderConfig.secondLevelCacheFirst(transactionTemplate, entityManager,
+                Customer.class, customerRepository);
+    }
+
+    @Test
+    public void cachedIdsAreNotQueried() throws Exception {
+        // given
+        when(cache.contains(Customer.class, 1L)).thenReturn(true);
+        when(cache.contains(Customer.class, 3L)).thenReturn(true);
+        when(entityManager.find(Customer.class, 1L)).thenReturn(customer(1L));
+        when(entityManager.find(Customer.class, 3L)).thenReturn(customer(3L));
+        when(customerRepository.findAllById(Collections.singletonList(2L)))
+                .thenReturn(Collections.singletonList(customer(2L)));
+
+        // when
+        List<Customer> customers = loader.apply(Arrays.asList(1L, 2L, 3L));
+
+        // then
+        assertEquals(3, customers.size());
+        verify(customerRepository).findAllById(Collections.singletonList(2L));
+        verify(customerRepository, never()).findById(anyLong());
+        verify(entityManager, never()).find(Customer.class, 2L);
+    }
+
+    @Test
+    public void fullyCachedBatchesRunNoQuery() throws Exception {
+        // given
+        when(cache.contains(eq(Customer.class), any())).thenReturn(true);
+        when(entityManager.find(Customer.class, 1L)).thenReturn(customer(1L));
+        when(entityManager.find(Customer.class, 2L)).thenReturn(null);
+
+        // when
+        List<Customer> customers = loader.apply(Arrays.asList(1L, 2L));
+
+        // then
+        assertEquals(1, customers.size());
+        verify(customerRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void aBatchIsLoadedInOneReadOnlyTransaction() throws Exception {
+        // given
+        when(cache.contains(Customer.class, 1L)).thenReturn(true);
+        when(cache.contains(Customer.class, 2L)).thenReturn(true);
+        when(entityManager.find(eq(Customer.class), any())).thenReturn(customer(1L));
+
+        // when
+        loader.apply(Arrays.asList(1L, 2L, 3L));
+
+        // then
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    private static Customer customer(Long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
+}
@@ -0,0 +1,103 @@
+package guru.springframework.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerListDTO;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JacksonConfigTest {
+
+    ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+    ObjectMapper tunedMapper = JacksonConfig.tune(Jackson2ObjectMapperBuilder.json())
+            .modulesToInstall(new JacksonConfig().afterburnerModule())
+            .build();
+
+    @Test
+    public void tunedMapperWritesTheSameJson() throws Exception {
+        // given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(1L);
+        customerDTO.setFirstname("Joe");
+        customerDTO.setLastname("Smith");
+        CustomerListDTO customerListDTO = new CustomerListDTO(Arrays.asList(customerDTO, new CustomerDTO()));
+
+        // when
+        String json = tunedMapper.writeValueAsString(customerListDTO);
+
+        // then
+        assertEquals(defaultMapper.writeValueAsString(customerListDTO), json);
+    }
+
+    @Test
+    public void tunedMapperReadsRequestBodies() throws Exception {
+        // when
+        CustomerDTO customerDTO = tunedMapper.readValue("{\"firstname\":\"Joe\",\"lastname\":\"Smith\"}",
+                CustomerDTO.class);
+
+        // then
+        assertEquals("Joe", customerDTO.getFirstname());
+        assertEquals("Smith", customerDTO.getLastname());
+    }
+
+    @Test
+    public void valuesAreNotFlushedOneByOne() throws Exception {
+        assertFalse(tunedMapper.isEnabled(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+    }
+
+    @Test
+    public void emptyBeansStillFail() throws Exception {
+        // a bean without properties is almost always a mistake, it should not silently become {}.
+        assertTrue(tunedMapper.isEnabled(SerializationFeature.FAIL_ON_EMPTY_BEANS));
+    }
+
+    @Test
+    public void smileListsAreSmallerThanJson() throws Exception {
+        // given
+        ObjectMapper smileMapper = new JacksonConfig()
+                .smileHttpMessageConverter(JacksonConfig.tune(Jackson2ObjectMapperBuilder.json()))
+                .getObjectMapper();
+        List<CustomerDTO> customers = new ArrayList<>();
+        for(long id = 1; id <= 100; id++) {
+            CustomerDTO customerDTO = new CustomerDTO();
+            customerDTO.setId(id);
+            customerDTO.setFirstname("Firstname" + id);
+            customerDTO.setLastname("Lastname" + id);
+            customers.add(customerDTO);
+        }
+        CustomerListDTO customerListDTO = new CustomerListDTO(customers);
+
+        // when
+        byte[] smile = smileMapper.writeValueAsBytes(customerListDTO);
+        byte[] json = defaultMapper.writeValueAsBytes(customerListDTO);
+
+        // then
+        assertTrue(smile.length < json.length);
+        JsonNode smileTree = smileMapper.readTree(smile);
+        assertEquals(defaultMapper.readTree(json), smileTree);
+    }
+
+    @Test
+    public void binaryConvertersLeaveTheSharedBuilderAlone() throws Exception {
+        // given
+        Jackson2ObjectMapperBuilder builder = JacksonConfig.tune(Jackson2ObjectMapperBuilder.json());
+        JacksonConfig jacksonConfig = new JacksonConfig();
+
+        // when
+        jacksonConfig.smileHttpMessageConverter(builder);
+        jacksonConfig.cborHttpMessageConverter(builder);
+
+        // then
+        assertEquals("JSON", builder.build().getFactory().getFormatName());
+    }
+}
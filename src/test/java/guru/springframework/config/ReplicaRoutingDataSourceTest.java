@@ -0,0 +1,72 @@
+package guru.springframework.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    DataSource primary;
+
+    @Mock
+    DataSource replica;
+
+    @Mock
+    Connection primaryConnection;
+
+    @Mock
+    Connection replicaConnection;
+
+    ReplicaRoutingDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        dataSource = new ReplicaRoutingDataSource(primary, replica);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void readOnlyTransactionsUseTheReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void everythingElseUsesThePrimary() throws Exception {
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void cacheFillsUseThePrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, ReplicaRoutingDataSource.readFromPrimary(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+}
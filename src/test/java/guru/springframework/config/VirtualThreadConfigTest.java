@@ -0,0 +1,37 @@
+package guru.springframework.config;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertSame;
+
+public class VirtualThreadConfigTest {
+
+    // any executor will do, creating the virtual thread one needs Java 21 (see VirtualThreadsApplicationTests).
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void tomcatRunsRequestsOnTheExecutor() throws Exception {
+        // given
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory();
+        Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+
+        // when
+        new VirtualThreadConfig().virtualThreadTomcatCustomizer(executor).customize(factory);
+        factory.getTomcatConnectorCustomizers().forEach(customizer -> customizer.customize(connector));
+
+        // then
+        assertSame(executor, ((AbstractProtocol<?>) connector.getProtocolHandler()).getExecutor());
+    }
+}
@@ -0,0 +1,128 @@
+package guru.springframework.controllers.reactive;
+
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.domain.ResourceVersion;
+import guru.springframework.services.ReactiveCustomerService;
+import guru.springframework.services.ResourceNotFoundException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+import static guru.springframework.controllers.v1.AbstractRestControllerTest.asJsonString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ReactiveCustomerControllerTest {
+
+    private static final String FIRST_NAME = "Michale";
+    private static final String LAST_NAME = "Weston";
+
+    @Mock
+    ReactiveCustomerService customerService;
+
+    @InjectMocks
+    ReactiveCustomerController customerController;
+
+    WebTestClient webTestClient;
+
+    CustomerDTO customerDTO;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        webTestClient = WebTestClient.bindToController(customerController)
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .build();
+
+        customerDTO = new CustomerDTO();
+        customerDTO.setFirstname(FIRST_NAME);
+        customerDTO.setLastname(LAST_NAME);
+        customerDTO.setId(1L);
+    }
+
+    @Test
+    public void getAllCustomers() throws Exception {
+        given(customerService.getCustomersVersion()).willReturn(Mono.just(new ResourceVersion(2L, 2L, 0L, Instant.now())));
+        given(customerService.getAllCustomers()).willReturn(Flux.just(customerDTO, new CustomerDTO()));
+
+        webTestClient.get().uri(CustomerController.CUSTOMER_BASE_URL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.customers.length()").isEqualTo(2)
+                .jsonPath("$.customers[0].firstname").isEqualTo(FIRST_NAME);
+    }
+
+    @Test
+    public void getAllCustomersNotModified() throws Exception {
+        ResourceVersion customersVersion = new ResourceVersion(2L, 2L, 0L, Instant.now());
+        given(customerService.getCustomersVersion()).willReturn(Mono.just(customersVersion));
+
+        webTestClient.get().uri(CustomerController.CUSTOMER_BASE_URL)
+                .header("If-None-Match", customersVersion.getETag())
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(customerService, never()).getAllCustomers();
+    }
+
+    @Test
+    public void getCustomerById() throws Exception {
+        given(customerService.getCustomerJsonById(anyLong())).willReturn(Mono.just(
+                CachedJson.of(asJsonString(customerDTO).getBytes("UTF-8"), ResourceVersion.of(0L, Instant.now()))));
+
+        webTestClient.get().uri(CustomerController.CUSTOMER_BASE_URL + "/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON_UTF8)
+                .expectBody()
+                .jsonPath("$.lastname").isEqualTo(LAST_NAME);
+    }
+
+    @Test
+    public void getCustomerByIdNotFound() throws Exception {
+        given(customerService.getCustomerJsonById(anyLong())).willReturn(Mono.error(new ResourceNotFoundException()));
+
+        webTestClient.get().uri(CustomerController.CUSTOMER_BASE_URL + "/222")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void createNewCustomer() throws Exception {
+        given(customerService.createNewCustomer(any(CustomerDTO.class))).willReturn(Mono.just(customerDTO));
+
+        webTestClient.post().uri(CustomerController.CUSTOMER_BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .syncBody(asJsonString(customerDTO))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.customer_url").isEqualTo(CustomerController.CUSTOMER_BASE_URL + "/1");
+    }
+
+    @Test
+    public void deleteCustomer() throws Exception {
+        given(customerService.deleteCustomerById(anyLong())).willReturn(Mono.empty());
+
+        webTestClient.delete().uri(CustomerController.CUSTOMER_BASE_URL + "/1")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(customerService).deleteCustomerById(1L);
+    }
+}
@@ -0,0 +1,87 @@
+package guru.springframework.controllers.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.controllers.v1.VendorController;
+import guru.springframework.services.ReactiveVendorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+import static org.mockito.BDDMockito.given;
+
+public class ReactiveVendorControllerTest {
+
+    private static final String VENDOR_NAME = "Coca Cola Solutions";
+    private static final String VENDOR_TWO_NAME = "Western Tasty Fruits Ltd.";
+
+    @Mock
+    ReactiveVendorService vendorService;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    ReactiveVendorController vendorController;
+
+    WebTestClient webTestClient;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        webTestClient = WebTestClient.bindToController(vendorController)
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void exportVendors() throws Exception {
+        given(vendorService.exportVendors()).willReturn(Flux.just(getVendorDTO(VENDOR_NAME, 1L),
+                getVendorDTO(VENDOR_TWO_NAME, 2L)));
+
+        webTestClient.get().uri(VendorController.VENDOR_BASE_URL + "/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.vendors.length()").isEqualTo(2)
+                .jsonPath("$.vendors[1].name").isEqualTo(VENDOR_TWO_NAME)
+                .jsonPath("$.vendors[1].vendor_url").isEqualTo(VendorController.VENDOR_BASE_URL + "/2");
+    }
+
+    @Test
+    public void exportNoVendors() throws Exception {
+        given(vendorService.exportVendors()).willReturn(Flux.empty());
+
+        webTestClient.get().uri(VendorController.VENDOR_BASE_URL + "/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"vendors\":[]}");
+    }
+
+    @Test
+    public void deleteVendors() throws Exception {
+        given(vendorService.deleteVendorsByIds(Arrays.asList(1L, 2L))).willReturn(Mono.just(2));
+
+        webTestClient.delete().uri(VendorController.VENDOR_BASE_URL + "?ids=1,2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.affected").isEqualTo(2);
+    }
+
+    private VendorDTO getVendorDTO(String name, Long id) {
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName(name);
+        vendorDTO.setId(id);
+        return vendorDTO;
+    }
+}
@@ -1,8 +1,11 @@
 package guru.springframework.controllers.v1;
 
 import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.api.v1.model.CategoryListDTO;
+import guru.springframework.cache.CachedJson;
 import guru.springframework.controllers.RestResponseEntityExceptionHandler;
 import guru.springframework.domain.Category;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.services.CategoryService;
 import guru.springframework.services.ResourceNotFoundException;
 import org.junit.Before;
@@ -14,14 +17,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
+import static guru.springframework.controllers.v1.AbstractRestControllerTest.asJsonString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -60,25 +66,42 @@ public class CategoryControllerTest {
 
         List<CategoryDTO> categories = Arrays.asList(category1, category2);
 
-        when(categoryService.getAllCategories()).thenReturn(categories);
+        ResourceVersion categoriesVersion = new ResourceVersion(2L, 2L, 0L, Instant.now());
+        when(categoryService.getAllCategoriesJson()).thenReturn(
+                CachedJson.of(asJsonString(new CategoryListDTO(categories)).getBytes("UTF-8"), categoriesVersion));
 
         mockMvc.perform(get(CategoryController.BASE_URL + "/")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", categoriesVersion.getETag()))
                 .andExpect(jsonPath("$.categories", hasSize(2)));
     }
 
+    @Test
+    public void testListCategoriesNotModified() throws Exception {
+        ResourceVersion categoriesVersion = new ResourceVersion(2L, 2L, 0L, Instant.now());
+        when(categoryService.getAllCategoriesJson())
+                .thenReturn(CachedJson.of("{\"categories\":[]}".getBytes("UTF-8"), categoriesVersion));
+
+        mockMvc.perform(get(CategoryController.BASE_URL + "/")
+                .header("If-None-Match", categoriesVersion.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void testGetByNameCategories() throws Exception {
         CategoryDTO category1 = new CategoryDTO();
         category1.setId(1l);
         category1.setName(NAME);
+        category1.setVersion(3L);
 
         when(categoryService.getCategoryByName(anyString())).thenReturn(category1);
 
         mockMvc.perform(get(CategoryController.BASE_URL + "/" + NAME)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(jsonPath("$.name", equalTo(NAME)));
     }
 
@@ -1,30 +1,52 @@
 package guru.springframework.controllers.v1;
 
+import guru.springframework.api.v1.model.CustomerBatchItemDTO;
 import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.CachedJson;
 import guru.springframework.controllers.RestResponseEntityExceptionHandler;
+import guru.springframework.domain.CustomerSummary;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.services.CustomerService;
+import guru.springframework.services.InvalidRequestException;
 import guru.springframework.services.ResourceNotFoundException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static guru.springframework.controllers.v1.AbstractRestControllerTest.asJsonString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class CustomerControllerTest {
@@ -61,6 +83,7 @@ public class CustomerControllerTest {
 
         // when
         List<CustomerDTO> customers = Arrays.asList(customerOne, customerTwo);
+        when(customerService.getCustomersVersion()).thenReturn(new ResourceVersion(2L, 2L, 0L, Instant.now()));
         when(customerService.getAllCustomers()).thenReturn(customers);
 
         // then
@@ -71,6 +94,182 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("$.customers", hasSize(customers.size())));
     }
 
+    @Test
+    public void testGetAllCustomersVariesByAccept() throws Exception {
+        // when
+        when(customerService.getCustomersVersion()).thenReturn(new ResourceVersion(1L, 1L, 0L, Instant.now()));
+        when(customerService.getAllCustomers())
+                .thenReturn(Arrays.asList(getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE)));
+
+        // then the body can also be Smile or CBOR, see Spring5MvcRestApplicationTests.
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void testGetAllCustomersNotModified() throws Exception {
+        // given
+        ResourceVersion customersVersion = new ResourceVersion(2L, 2L, 0L, Instant.now());
+
+        // when
+        when(customerService.getCustomersVersion()).thenReturn(customersVersion);
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL)
+                .header("If-None-Match", customersVersion.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        verify(customerService, never()).getAllCustomers();
+    }
+
+    @Test
+    public void testGetAllCustomersAsync() throws Exception {
+        // given
+        List<CustomerDTO> customers = Arrays.asList(getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE),
+                getCustomerDTO(FIRST_NAME_TWO, LAST_NAME_TWO));
+
+        // when
+        when(customerService.getAllCustomersAsync()).thenReturn(CompletableFuture.completedFuture(customers));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(customers.size())));
+    }
+
+    @Test
+    public void testGetAllCustomersAsyncRejected() throws Exception {
+        // when
+        when(customerService.getAllCustomersAsync()).thenThrow(new TaskRejectedException("list executor is full"));
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/async"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER,
+                        RestResponseEntityExceptionHandler.RETRY_AFTER_SECONDS));
+    }
+
+    @Test
+    public void testGetCustomersByIds() throws Exception {
+        // given
+        CustomerDTO customerOne = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+
+        // when
+        when(customerService.getCustomersByIds(Arrays.asList(1L, 5L)))
+                .thenReturn(new CustomerMultiGetDTO(Arrays.asList(customerOne, null), Arrays.asList(5L)));
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL)
+                .param("ids", "1,5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(2)))
+                .andExpect(jsonPath("$.customers[0].firstname", equalTo(FIRST_NAME_ONE)))
+                .andExpect(jsonPath("$.customers[1]").value(nullValue()))
+                .andExpect(jsonPath("$.not_found[0]", equalTo(5)));
+    }
+
+    @Test
+    public void testGetCustomerPage() throws Exception {
+        // given
+        CustomerDTO customerOne = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+        CustomerDTO customerTwo = getCustomerDTO(FIRST_NAME_TWO, LAST_NAME_TWO);
+        String nextUrl = CustomerController.CUSTOMER_BASE_URL + "?limit=2&after=2";
+
+        // when
+        when(customerService.getCustomerPage(eq(0L), eq(2)))
+                .thenReturn(new CustomerPageDTO(Arrays.asList(customerOne, customerTwo), nextUrl));
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL)
+                .param("limit", "2")
+                .param("after", "0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(2)))
+                .andExpect(jsonPath("$.next_url", equalTo(nextUrl)));
+    }
+
+    @Test
+    public void testGetCustomerPageWithAnInvalidLimit() throws Exception {
+        when(customerService.getCustomerPage(isNull(), eq(0))).thenThrow(InvalidRequestException.class);
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL)
+                .param("limit", "0")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchCustomers() throws Exception {
+        // given
+        CustomerDTO customerOne = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+
+        // when
+        when(customerService.searchCustomers(eq("Fr"), isNull(), isNull(), eq(20)))
+                .thenReturn(new CustomerPageDTO(Arrays.asList(customerOne), null));
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/search")
+                .param("lastname", "Fr")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.customers[0].firstname", equalTo(FIRST_NAME_ONE)));
+    }
+
+    @Test
+    public void testSearchCustomersAfterACursor() throws Exception {
+        // given
+        CustomerDTO customerOne = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+        CustomerSummary after = new CustomerSummary(7L, "Bob", "Frank");
+
+        // when
+        when(customerService.searchCustomers(eq("Fr"), isNull(), eq(after), eq(20)))
+                .thenReturn(new CustomerPageDTO(Arrays.asList(customerOne), null));
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/search")
+                .param("lastname", "Fr")
+                .param("afterLastname", "Frank")
+                .param("afterFirstname", "Bob")
+                .param("afterId", "7")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)));
+    }
+
+    @Test
+    public void testSearchCustomersByText() throws Exception {
+        // given
+        CustomerDTO customerOne = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+
+        // when
+        when(customerService.searchCustomersByText("bob franco", 5)).thenReturn(Arrays.asList(customerOne));
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/search")
+                .param("q", "bob franco")
+                .param("limit", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers", hasSize(1)))
+                .andExpect(jsonPath("$.customers[0].lastname", equalTo(LAST_NAME_ONE)));
+        verify(customerService, never()).searchCustomers(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testSearchCustomersWithoutLastname() throws Exception {
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/search")
+                .param("firstname", "Jo")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     private CustomerDTO getCustomerDTO(String firstName, String lastName) {
         CustomerDTO customerDTO = new CustomerDTO();
         customerDTO.setFirstname(firstName);
@@ -84,23 +283,43 @@ public class CustomerControllerTest {
         CustomerDTO customerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
 
         // when
-        when(customerService.getCustomerById(anyLong())).thenReturn(customerDTO);
+        CachedJson customerJson = CachedJson.of(asJsonString(customerDTO).getBytes("UTF-8"),
+                ResourceVersion.of(0L, Instant.now()));
+        when(customerService.getCustomerJsonById(anyLong())).thenReturn(customerJson);
 
         // then
         mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/" + ID_ONE)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", customerJson.getETag()))
                 .andExpect(jsonPath("$.firstname", equalTo(FIRST_NAME_ONE)))
                 .andExpect(jsonPath("$.lastname", equalTo(LAST_NAME_ONE)));
     }
 
+    @Test
+    public void testGetCustomerByIdNotModified() throws Exception {
+        //given
+        CustomerDTO customerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+        CachedJson customerJson = CachedJson.of(asJsonString(customerDTO).getBytes("UTF-8"),
+                ResourceVersion.of(1L, Instant.now()));
+
+        // when
+        when(customerService.getCustomerJsonById(anyLong())).thenReturn(customerJson);
+
+        // then
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/" + ID_ONE)
+                .header("If-None-Match", customerJson.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void createNewCustomer() throws Exception {
         // given
         CustomerDTO customerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
 
         CustomerDTO returnCustomerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
-        returnCustomerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + ID_ONE);
+        returnCustomerDTO.setId(Long.valueOf(ID_ONE));
 
         // when
         when(customerService.createNewCustomer(customerDTO)).thenReturn(returnCustomerDTO);
@@ -122,13 +341,38 @@ public class CustomerControllerTest {
 //        System.out.println(response);
     }
 
+    @Test
+    public void createNewCustomers() throws Exception {
+        // given
+        List<CustomerDTO> customerDTOS = Arrays.asList(getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE),
+                getCustomerDTO(FIRST_NAME_TWO, LAST_NAME_TWO));
+
+        CustomerDTO createdCustomerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
+        createdCustomerDTO.setId(Long.valueOf(ID_ONE));
+
+        // when
+        when(customerService.createNewCustomers(anyList())).thenReturn(Arrays.asList(
+                new CustomerBatchItemDTO(0, 201, createdCustomerDTO, null),
+                new CustomerBatchItemDTO(1, 400, null, "failed")));
+
+        // then
+        mockMvc.perform(post(CustomerController.CUSTOMER_BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(customerDTOS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[0].customer.customer_url",
+                        equalTo(CustomerController.CUSTOMER_BASE_URL + "/" + ID_ONE)))
+                .andExpect(jsonPath("$.results[1].status", equalTo(400)));
+    }
+
     @Test
     public void testUpdateCustomer() throws Exception {
         // given
         CustomerDTO customerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
 
         CustomerDTO updatedCustomerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
-        updatedCustomerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + ID_ONE);
+        updatedCustomerDTO.setId(Long.valueOf(ID_ONE));
 
         // when
         when(customerService.saveCustomerByDTO(anyLong(), any(CustomerDTO.class))).thenReturn(updatedCustomerDTO);
@@ -150,7 +394,7 @@ public class CustomerControllerTest {
         customerDTO.setFirstname(FIRST_NAME_ONE);
 
         CustomerDTO updatedCustomerDTO = getCustomerDTO(FIRST_NAME_ONE, LAST_NAME_ONE);
-        updatedCustomerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + ID_ONE);
+        updatedCustomerDTO.setId(Long.valueOf(ID_ONE));
 
         // when
         when(customerService.patchCustomer(anyLong(), any(CustomerDTO.class))).thenReturn(updatedCustomerDTO);
@@ -176,7 +420,7 @@ public class CustomerControllerTest {
 
     @Test
     public void testCustomerNotFound() throws Exception {
-        when(customerService.getCustomerById(anyLong())).thenThrow(ResourceNotFoundException.class);
+        when(customerService.getCustomerJsonById(anyLong())).thenThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/" + INVALID_ID)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -1,6 +1,8 @@
 package guru.springframework.controllers.v1;
 
 import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.domain.Vendor;
 import guru.springframework.services.ResourceNotFoundException;
 import guru.springframework.services.VendorService;
@@ -14,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,6 +29,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -61,7 +65,7 @@ public class VendorControllerITTest {
     private VendorDTO getVendorDTO(String vendorName, String vendorId) {
         VendorDTO vendorDTO = new VendorDTO();
         vendorDTO.setName(vendorName);
-        vendorDTO.setVendorUrl(VendorController.VENDOR_BASE_URL + "/" + vendorId);
+        vendorDTO.setId(Long.valueOf(vendorId));
         return vendorDTO;
     }
 
@@ -70,6 +74,7 @@ public class VendorControllerITTest {
         // when
         List<VendorDTO> vendors = Arrays.asList(vendorDTO, vendorDTOTwo);
 //        when(vendorService.getAllVendors()).thenReturn(vendors);
+        given(vendorService.getVendorsVersion()).willReturn(new ResourceVersion(2L, 2L, 0L, Instant.now()));
         given(vendorService.getAllVendors()).willReturn(vendors);
 
         mockMvc.perform(get(VendorController.VENDOR_BASE_URL)
@@ -80,17 +85,20 @@ public class VendorControllerITTest {
 
     @Test
     public void getVendorById() throws Exception {
-        given(vendorService.getVendorById(anyLong())).willReturn(vendorDTO);
+        CachedJson vendorJson = CachedJson.of(asJsonString(vendorDTO).getBytes("UTF-8"),
+                ResourceVersion.of(0L, Instant.now()));
+        given(vendorService.getVendorJsonById(anyLong())).willReturn(vendorJson);
 
         mockMvc.perform(get(VendorController.VENDOR_BASE_URL + "/" + VENDOR_ID_ONE)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", vendorJson.getETag()))
                 .andExpect(jsonPath("$.name", equalTo(vendorDTO.getName())));
     }
 
     @Test
     public void getVendorByNonExistingId() throws Exception {
-        given(vendorService.getVendorById(anyLong())).willThrow(ResourceNotFoundException.class);
+        given(vendorService.getVendorJsonById(anyLong())).willThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(get(VendorController.VENDOR_BASE_URL + "/" + VENDOR_ID_ONE)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -99,14 +107,15 @@ public class VendorControllerITTest {
 
     @Test
     public void createNewVendor() throws Exception {
-        given(vendorService.createNewVendor(vendorDTO)).willReturn(vendorDTO);
+        given(vendorService.createNewVendor(any(VendorDTO.class))).willReturn(vendorDTO);
 
         mockMvc.perform(post(VendorController.VENDOR_BASE_URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(vendorDTO)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.name", equalTo(vendorDTO.getName())))
-                .andExpect(jsonPath("$.vendor_url", equalTo(vendorDTO.getVendorUrl())));
+                .andExpect(jsonPath("$.vendor_url",
+                        equalTo(VendorController.VENDOR_BASE_URL + "/" + vendorDTO.getId())));
     }
 
     @Test
@@ -1,6 +1,10 @@
 package guru.springframework.controllers.v1;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.api.v1.model.VendorBulkPatchDTO;
 import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.controllers.RestResponseEntityExceptionHandler;
 import guru.springframework.services.ResourceNotFoundException;
 import guru.springframework.services.VendorService;
@@ -9,22 +13,29 @@ import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static guru.springframework.controllers.v1.AbstractRestControllerTest.asJsonString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +49,9 @@ public class VendorControllerTest {
     @Mock
     VendorService vendorService;
 
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     VendorController vendorController;
 
@@ -63,6 +77,7 @@ public class VendorControllerTest {
         // when
         List<VendorDTO> vendors = Arrays.asList(vendorDTO, vendorDTOTwo);
 //        when(vendorService.getAllVendors()).thenReturn(vendors);
+        given(vendorService.getVendorsVersion()).willReturn(new ResourceVersion(2L, 2L, 0L, Instant.now()));
         given(vendorService.getAllVendors()).willReturn(vendors);
 
         mockMvc.perform(get(VendorController.VENDOR_BASE_URL)
@@ -71,19 +86,66 @@ public class VendorControllerTest {
                 .andExpect(jsonPath("$.vendors", hasSize(vendors.size())));
     }
 
+    @Test
+    public void testSearchVendors() throws Exception {
+        // when
+        given(vendorService.searchVendorsByText("cola", 20)).willReturn(Arrays.asList(vendorDTO));
+
+        mockMvc.perform(get(VendorController.VENDOR_BASE_URL + "/search")
+                .param("q", "cola")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vendors", hasSize(1)))
+                .andExpect(jsonPath("$.vendors[0].name", equalTo(vendorDTO.getName())));
+    }
+
+    @Test
+    public void testGetAllVendorsNotModified() throws Exception {
+        ResourceVersion vendorsVersion = new ResourceVersion(2L, 2L, 0L, Instant.now());
+        given(vendorService.getVendorsVersion()).willReturn(vendorsVersion);
+
+        mockMvc.perform(get(VendorController.VENDOR_BASE_URL)
+                .header("If-None-Match", vendorsVersion.getETag())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        verify(vendorService, never()).getAllVendors();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void exportVendors() throws Exception {
+        willAnswer(invocation -> {
+            Consumer<VendorDTO> vendorConsumer = invocation.getArgument(0);
+            vendorConsumer.accept(vendorDTO);
+            vendorConsumer.accept(vendorDTOTwo);
+            return null;
+        }).given(vendorService).exportVendors(any(Consumer.class));
+
+        mockMvc.perform(get(VendorController.VENDOR_BASE_URL + "/export")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vendors", hasSize(2)))
+                .andExpect(jsonPath("$.vendors[1].vendor_url",
+                        equalTo(VendorController.VENDOR_BASE_URL + "/" + vendorDTOTwo.getId())));
+    }
+
     @Test
     public void getVendorById() throws Exception {
-        given(vendorService.getVendorById(anyLong())).willReturn(vendorDTO);
+        CachedJson vendorJson = CachedJson.of(asJsonString(vendorDTO).getBytes("UTF-8"),
+                ResourceVersion.of(0L, Instant.now()));
+        given(vendorService.getVendorJsonById(anyLong())).willReturn(vendorJson);
 
         mockMvc.perform(get(VendorController.VENDOR_BASE_URL + "/" + VENDOR_ID_ONE)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", vendorJson.getETag()))
                 .andExpect(jsonPath("$.name", equalTo(vendorDTO.getName())));
     }
 
     @Test
     public void getVendorByNonExistingId() throws Exception {
-        given(vendorService.getVendorById(anyLong())).willThrow(ResourceNotFoundException.class);
+        given(vendorService.getVendorJsonById(anyLong())).willThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(get(VendorController.VENDOR_BASE_URL + "/" + VENDOR_ID_ONE)
                 .contentType(MediaType.APPLICATION_JSON))
@@ -92,14 +154,14 @@ public class VendorControllerTest {
 
     @Test
     public void createNewVendor() throws Exception {
-        given(vendorService.createNewVendor(vendorDTO)).willReturn(vendorDTO);
+        given(vendorService.createNewVendor(any(VendorDTO.class))).willReturn(vendorDTO);
 
         mockMvc.perform(post(VendorController.VENDOR_BASE_URL)
             .contentType(MediaType.APPLICATION_JSON)
             .content(asJsonString(vendorDTO)))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.name", equalTo(vendorDTO.getName())))
-            .andExpect(jsonPath("$.vendor_url", equalTo(vendorDTO.getVendorUrl())));
+            .andExpect(jsonPath("$.vendor_url", equalTo(VendorController.VENDOR_BASE_URL + "/" + vendorDTO.getId())));
     }
 
     @Test
@@ -132,10 +194,56 @@ public class VendorControllerTest {
         verify(vendorService).deleteVendorById(anyLong());
     }
 
+    @Test
+    public void patchVendors() throws Exception {
+        VendorBulkPatchDTO vendorBulkPatchDTO = new VendorBulkPatchDTO(Arrays.asList(1L, 2L), vendorDTO);
+        given(vendorService.patchVendors(anyList(), any(VendorDTO.class))).willReturn(2);
+
+        mockMvc.perform(patch(VendorController.VENDOR_BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(vendorBulkPatchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", equalTo(2)));
+    }
+
+    @Test
+    public void patchVendorsWithoutIds() throws Exception {
+        VendorBulkPatchDTO vendorBulkPatchDTO = new VendorBulkPatchDTO(null, vendorDTO);
+
+        mockMvc.perform(patch(VendorController.VENDOR_BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(vendorBulkPatchDTO)))
+                .andExpect(status().isBadRequest());
+
+        verify(vendorService, never()).patchVendors(any(), any());
+    }
+
+    @Test
+    public void patchVendorsWithoutVendor() throws Exception {
+        mockMvc.perform(patch(VendorController.VENDOR_BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(vendorService, never()).patchVendors(any(), any());
+    }
+
+    @Test
+    public void deleteVendors() throws Exception {
+        given(vendorService.deleteVendorsByIds(Arrays.asList(1L, 2L, 3L))).willReturn(2);
+
+        mockMvc.perform(delete(VendorController.VENDOR_BASE_URL)
+                .param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", equalTo(2)));
+
+        verify(vendorService, never()).deleteVendorById(anyLong());
+    }
+
     private VendorDTO getVendorDTO(String vendorName, String vendorId) {
         VendorDTO vendorDTO = new VendorDTO();
         vendorDTO.setName(vendorName);
-        vendorDTO.setVendorUrl(VendorController.VENDOR_BASE_URL + "/" + vendorId);
+        vendorDTO.setId(Long.valueOf(vendorId));
         return vendorDTO;
     }
 
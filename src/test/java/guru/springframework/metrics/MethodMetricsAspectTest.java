@@ -0,0 +1,66 @@
+package guru.springframework.metrics;
+
+import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.services.CategoryService;
+import guru.springframework.services.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class MethodMetricsAspectTest {
+
+    @Mock
+    CategoryService categoryService;
+
+    MeterRegistry meterRegistry;
+
+    CategoryService timedCategoryService;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(categoryService);
+        proxyFactory.addAspect(new MethodMetricsAspect(meterRegistry));
+        timedCategoryService = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void timesSuccessfulCalls() throws Exception {
+        // when
+        when(categoryService.getCategoryByName(anyString())).thenReturn(new CategoryDTO());
+        timedCategoryService.getCategoryByName("Fruits");
+        timedCategoryService.getCategoryByName("Nuts");
+
+        // then
+        Timer timer = meterRegistry.timer(MethodMetricsAspect.METRIC_NAME,
+                "class", "CategoryService", "method", "getCategoryByName", "exception", "none");
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void timesFailedCallsByException() throws Exception {
+        // when
+        when(categoryService.getCategoryByName(anyString())).thenThrow(new ResourceNotFoundException());
+        try {
+            timedCategoryService.getCategoryByName("Unknown");
+        } catch (ResourceNotFoundException expected) {
+            // recorded, then rethrown.
+        }
+
+        // then
+        Timer timer = meterRegistry.timer(MethodMetricsAspect.METRIC_NAME,
+                "class", "CategoryService", "method", "getCategoryByName", "exception", "ResourceNotFoundException");
+        assertEquals(1, timer.count());
+    }
+}
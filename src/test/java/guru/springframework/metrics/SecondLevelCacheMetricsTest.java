@@ -0,0 +1,74 @@
+package guru.springframework.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class SecondLevelCacheMetricsTest {
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    SessionFactory sessionFactory;
+
+    @Mock
+    Statistics statistics;
+
+    @Mock
+    SecondLevelCacheStatistics customerStatistics;
+
+    MeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"customer"});
+        when(statistics.getSecondLevelCacheStatistics("customer")).thenReturn(customerStatistics);
+
+        meterRegistry = new SimpleMeterRegistry();
+        new SecondLevelCacheMetrics(entityManagerFactory).bindTo(meterRegistry);
+    }
+
+    @Test
+    public void publishesTheHitRatioPerRegion() throws Exception {
+        // when
+        when(customerStatistics.getHitCount()).thenReturn(3L);
+        when(customerStatistics.getMissCount()).thenReturn(1L);
+
+        // then
+        assertEquals(0.75, meterRegistry.get("hibernate.cache.hit.ratio").tag("region", "customer")
+                .gauge().value(), 0.0);
+    }
+
+    @Test
+    public void publishesTheQueryCacheHitRatio() throws Exception {
+        // when
+        when(statistics.getQueryCacheHitCount()).thenReturn(1L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(4L);
+
+        // then
+        assertEquals(0.2, meterRegistry.get("hibernate.cache.query.hit.ratio").gauge().value(), 0.0);
+    }
+
+    @Test
+    public void noRatioBeforeTheFirstRequest() throws Exception {
+        // then
+        assertTrue(Double.isNaN(meterRegistry.get("hibernate.cache.hit.ratio").gauge().value()));
+        assertTrue(Double.isNaN(meterRegistry.get("hibernate.cache.query.hit.ratio").gauge().value()));
+    }
+}
@@ -0,0 +1,114 @@
+package guru.springframework.metrics;
+
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.services.CustomerService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StatementMetricsInterceptorTest {
+
+    @Mock
+    CustomerService customerService;
+
+    @InjectMocks
+    CustomerController customerController;
+
+    StatementCountingInspector inspector = new StatementCountingInspector();
+
+    MeterRegistry meterRegistry;
+
+    ThreadPoolTaskExecutor listExecutor;
+
+    MockMvc mockMvc;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        meterRegistry = new SimpleMeterRegistry();
+        // decorated like AsyncConfig's list executor.
+        listExecutor = new ThreadPoolTaskExecutor();
+        listExecutor.setTaskDecorator(StatementCountingInspector::propagate);
+        listExecutor.initialize();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(customerController)
+                .addInterceptors(new StatementMetricsInterceptor(meterRegistry))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        listExecutor.shutdown();
+    }
+
+    @Test
+    public void eachRequestCountsItsOwnStatements() throws Exception {
+        // when
+        when(customerService.getCustomerPage(isNull(), anyInt())).thenAnswer(invocation -> {
+            inspector.inspect("select");
+            return new CustomerPageDTO(Arrays.asList(new CustomerDTO()), null);
+        });
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL).param("limit", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL).param("limit", "1"))
+                .andExpect(status().isOk());
+        // outside of a request nothing is counted.
+        inspector.inspect("select");
+
+        // then
+        DistributionSummary statements = meterRegistry.summary(StatementMetricsInterceptor.METRIC_NAME,
+                "method", "GET", "uri", CustomerController.CUSTOMER_BASE_URL);
+        assertEquals(2, statements.count());
+        assertEquals(2, statements.totalAmount(), 0.0);
+    }
+
+    @Test
+    public void asyncRequestsCountTheStatementsOfTheListExecutor() throws Exception {
+        // given
+        List<CustomerDTO> customers = Arrays.asList(new CustomerDTO(), new CustomerDTO());
+
+        // when
+        when(customerService.getAllCustomersAsync()).thenAnswer(invocation -> CompletableFuture.supplyAsync(() -> {
+            inspector.inspect("select");
+            inspector.inspect("select");
+            return customers;
+        }, listExecutor));
+        MvcResult mvcResult = mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL + "/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        // then
+        DistributionSummary statements = meterRegistry.summary(StatementMetricsInterceptor.METRIC_NAME,
+                "method", "GET", "uri", CustomerController.CUSTOMER_BASE_URL + "/async");
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount(), 0.0);
+    }
+}
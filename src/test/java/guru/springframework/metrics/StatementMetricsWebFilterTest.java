@@ -0,0 +1,79 @@
+package guru.springframework.metrics;
+
+import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.controllers.reactive.ReactiveCustomerController;
+import guru.springframework.controllers.v1.CustomerController;
+import guru.springframework.services.CustomerService;
+import guru.springframework.services.ReactiveCustomerServiceImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+
+public class StatementMetricsWebFilterTest {
+
+    @Mock
+    CustomerService customerService;
+
+    StatementCountingInspector inspector = new StatementCountingInspector();
+
+    MeterRegistry meterRegistry;
+
+    Scheduler jdbcScheduler;
+
+    WebTestClient webTestClient;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcScheduler = Schedulers.newSingle("jdbc-test");
+        ReactiveCustomerController customerController =
+                new ReactiveCustomerController(new ReactiveCustomerServiceImpl(customerService, jdbcScheduler));
+        webTestClient = WebTestClient.bindToController(customerController)
+                .webFilter(new StatementMetricsWebFilter(meterRegistry))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        jdbcScheduler.dispose();
+    }
+
+    @Test
+    public void statementsOnTheJdbcSchedulerAreCountedForTheRequest() throws Exception {
+        // given
+        given(customerService.getCustomerPage(isNull(), anyInt())).willAnswer(invocation -> {
+            inspector.inspect("select");
+            inspector.inspect("select");
+            return new CustomerPageDTO(Arrays.asList(new CustomerDTO()), null);
+        });
+
+        // when
+        webTestClient.get().uri(CustomerController.CUSTOMER_BASE_URL + "?limit=1")
+                .exchange()
+                .expectStatus().isOk();
+
+        // then
+        DistributionSummary statements = meterRegistry.summary(StatementMetricsInterceptor.METRIC_NAME,
+                "method", "GET", "uri", CustomerController.CUSTOMER_BASE_URL);
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount(), 0.0);
+    }
+}
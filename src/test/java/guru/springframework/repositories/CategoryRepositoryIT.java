@@ -0,0 +1,89 @@
+package guru.springframework.repositories;
+
+import guru.springframework.domain.Category;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+// query results are only cached for committed data, the repository calls run in their own transactions.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CategoryRepositoryIT {
+
+    private static final String NAME = "Query Cache";
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    Category category;
+
+    @Before
+    public void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        category = new Category();
+        category.setName(NAME);
+        category = categoryRepository.save(category);
+
+        // the query cache compares timestamps, the first query must start after the insert invalidated it.
+        Thread.sleep(200);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    public void findByNameIsAnsweredFromTheQueryCache() throws Exception {
+        categoryRepository.findByName(NAME);
+        long hits = statistics.getQueryCacheHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        Category found = categoryRepository.findByName(NAME);
+
+        assertEquals(category.getId(), found.getId());
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findByNameNormalizedIsAnsweredFromTheQueryCache() throws Exception {
+        categoryRepository.findByNameNormalized(NAME.toUpperCase());
+        long hits = statistics.getQueryCacheHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        Category found = categoryRepository.findByNameNormalized(NAME.toUpperCase());
+
+        assertEquals(category.getId(), found.getId());
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    public void namesDifferingOnlyInCaseAreRejected() throws Exception {
+        Category duplicate = new Category();
+        duplicate.setName(NAME.toUpperCase());
+
+        categoryRepository.save(duplicate);
+    }
+}
@@ -0,0 +1,69 @@
+package guru.springframework.search;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchIndexTest {
+
+    SearchIndex searchIndex = new SearchIndex("test");
+
+    @After
+    public void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    @Test
+    public void exactMatchesRankAbovePrefixAndFuzzyMatches() throws Exception {
+        searchIndex.index(1L, "Fresh Fruits");
+        searchIndex.index(2L, "Fruit Salad");
+        searchIndex.index(3L, "Exotic Nuts");
+        searchIndex.refresh();
+
+        assertEquals(Arrays.asList(2L, 1L), searchIndex.search("fruit", 10));
+        assertEquals(Arrays.asList(3L), searchIndex.search("exotik", 10));
+        assertEquals(Collections.emptyList(), searchIndex.search("  ", 10));
+    }
+
+    @Test
+    public void reindexingReplacesTheText() throws Exception {
+        searchIndex.index(1L, "Coca Cola");
+        searchIndex.index(1L, "Pepsi");
+        searchIndex.refresh();
+
+        assertEquals(Collections.emptyList(), searchIndex.search("cola", 10));
+        assertEquals(Arrays.asList(1L), searchIndex.search("pepsi", 10));
+    }
+
+    @Test
+    public void deletedIdsAreNotFound() throws Exception {
+        searchIndex.index(1L, "Coca Cola");
+        searchIndex.index(2L, "Cola Light");
+        searchIndex.delete(1L);
+        searchIndex.refresh();
+
+        assertEquals(Arrays.asList(2L), searchIndex.search("cola", 10));
+    }
+
+    @Test
+    public void failedUpdatesAfterCommitAreNotRethrown() throws Exception {
+        SearchIndex closedIndex = new SearchIndex("closed");
+        closedIndex.close();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            closedIndex.index(1L, "Coca Cola");
+            for(TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package guru.springframework.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.api.v1.mapper.CategoryMapper;
 import guru.springframework.api.v1.model.CategoryDTO;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.cache.CategoryCache;
 import guru.springframework.domain.Category;
+import guru.springframework.domain.CategorySummary;
+import guru.springframework.domain.ResourceVersion;
 import guru.springframework.repositories.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class CategoryServiceTest {
@@ -24,21 +35,25 @@ public class CategoryServiceTest {
     @Mock
     CategoryRepository categoryRepository;
 
+    CategoryCache categoryCache;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository);
+        categoryCache = new CategoryCache(100, 60);
+        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository, categoryCache,
+                new ObjectMapper(), false, new SimpleMeterRegistry());
     }
 
     @Test
     public void getAllCategories() throws Exception {
 
         //given
-        List<Category> categories = Arrays.asList(new Category(), new Category(), new Category());
+        List<CategorySummary> categories = Arrays.asList(new CategorySummary(1L, "Fruits"),
+                new CategorySummary(2L, "Dried"), new CategorySummary(3L, "Nuts"));
 
-        when(categoryRepository.findAll()).thenReturn(categories);
+        when(categoryRepository.findAllSummaries()).thenReturn(categories);
 
         //when
         List<CategoryDTO> categoryDTOS = categoryService.getAllCategories();
@@ -66,4 +81,74 @@ public class CategoryServiceTest {
         assertEquals(NAME, categoryDTO.getName());
 
     }
+
+    @Test
+    public void getAllCategoriesJsonIsCached() throws Exception {
+        //given
+        ResourceVersion categoriesVersion = new ResourceVersion(1L, ID, 0L, Instant.now());
+
+        when(categoryRepository.findAllSummaries()).thenReturn(Arrays.asList(new CategorySummary(ID, NAME)));
+        when(categoryRepository.findResourceVersion()).thenReturn(categoriesVersion);
+
+        //when
+        CachedJson json = categoryService.getAllCategoriesJson();
+        CachedJson cachedJson = categoryService.getAllCategoriesJson();
+
+        //then
+        assertEquals("{\"categories\":[{\"id\":2,\"name\":\"Jimmy\"}]}", new String(json.getBytes(), "UTF-8"));
+        assertEquals(categoriesVersion.getETag(), json.getETag());
+        assertSame(json, cachedJson);
+        verify(categoryRepository, times(1)).findAllSummaries();
+    }
+
+    @Test
+    public void getCategoryByNameIsCachedUntilInvalidated() throws Exception {
+
+        //given
+        Category category = new Category();
+        category.setId(ID);
+        category.setName(NAME);
+
+        when(categoryRepository.findByName(anyString())).thenReturn(category);
+
+        //when
+        categoryService.getCategoryByName(NAME);
+        categoryService.getCategoryByName(NAME);
+        categoryCache.invalidate(NAME);
+        categoryService.getCategoryByName(NAME);
+
+        //then
+        verify(categoryRepository, times(2)).findByName(NAME);
+        assertEquals(1, categoryCache.getCategoriesByName().hitCount());
+    }
+
+    @Test
+    public void getCategoryByNameIgnoringCase() throws Exception {
+
+        //given
+        categoryService = new CategoryServiceImpl(CategoryMapper.INSTANCE, categoryRepository, categoryCache,
+                new ObjectMapper(), true, new SimpleMeterRegistry());
+        Category category = new Category();
+        category.setId(ID);
+        category.setName(NAME);
+
+        when(categoryRepository.findByNameNormalized("JIMMY")).thenReturn(category);
+
+        //when
+        CategoryDTO categoryDTO = categoryService.getCategoryByName("jimmy");
+        CategoryDTO cachedCategoryDTO = categoryService.getCategoryByName("JiMmY");
+
+        //then
+        assertEquals(NAME, categoryDTO.getName());
+        assertSame(categoryDTO, cachedCategoryDTO);
+        verify(categoryRepository, times(1)).findByNameNormalized("JIMMY");
+        verify(categoryRepository, never()).findByName(anyString());
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getCategoryByNameNotFound() throws Exception {
+        when(categoryRepository.findByName(anyString())).thenReturn(null);
+
+        categoryService.getCategoryByName(NAME);
+    }
 }
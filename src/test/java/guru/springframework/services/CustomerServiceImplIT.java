@@ -1,12 +1,19 @@
 package guru.springframework.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.api.v1.mapper.CustomerMapper;
 import guru.springframework.api.v1.model.CustomerDTO;
 import guru.springframework.bootstrap.Bootstrap;
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.cache.JsonResponseCache;
 import guru.springframework.domain.Customer;
+import guru.springframework.domain.Vendor;
 import guru.springframework.repositories.CategoryRepository;
 import guru.springframework.repositories.CustomerRepository;
 import guru.springframework.repositories.VendorRepository;
+import guru.springframework.search.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,12 +21,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.hamcrest.core.IsNot.not;
 
 
@@ -39,8 +52,13 @@ public class CustomerServiceImplIT {
     @Autowired
     VendorRepository vendorRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
     CustomerService customerService;
 
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Before
     public void setUp() throws Exception {
         System.out.println("Loading Customer Data");
@@ -50,7 +68,11 @@ public class CustomerServiceImplIT {
         Bootstrap bootstrap = new Bootstrap(categoryRepository, customerRepository, vendorRepository);
         bootstrap.run();
 
-        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository);
+        customerService = new CustomerServiceImpl(CustomerMapper.INSTANCE, customerRepository,
+                new JsonResponseCache("customers", new ObjectMapper().writerFor(CustomerDTO.class), 1024 * 1024, 60),
+                new BatchLoader<>("customers", customerRepository::findAllById, Customer::getId, 100, 0,
+                        meterRegistry),
+                new SearchIndex("customers"), 1000, meterRegistry);
     }
 
     @Test
@@ -97,6 +119,47 @@ public class CustomerServiceImplIT {
         assertThat(originalFirstName, equalTo(updatedCustomer.getFirstname()));
     }
 
+    @Test
+    public void patchCustomerEvictsOnlyThatCustomerFromTheSecondLevelCache() throws Exception {
+        List<Customer> customers = loadIntoSecondLevelCache(Customer.class);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Long patchedId = customers.get(0).getId();
+        Long otherId = customers.get(1).getId();
+
+        // both names, so the patched customer isn't read back (and cached again) for the response.
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("updatedName");
+        customerDTO.setLastname("updatedLastName");
+        customerService.patchCustomer(patchedId, customerDTO);
+
+        assertFalse(cache.contains(Customer.class, patchedId));
+        assertTrue(cache.contains(Customer.class, otherId));
+        assertEquals("updatedName", customerRepository.findById(patchedId).get().getFirstname());
+    }
+
+    @Test
+    public void bulkVendorWritesEvictOnlyTheirVendorsFromTheSecondLevelCache() throws Exception {
+        List<Vendor> vendors = loadIntoSecondLevelCache(Vendor.class);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Long patchedId = vendors.get(0).getId();
+        Long deletedId = vendors.get(1).getId();
+
+        vendorRepository.updateNameByIdIn("updatedName", Instant.now(), Collections.singletonList(patchedId));
+        assertFalse(cache.contains(Vendor.class, patchedId));
+        assertTrue(cache.contains(Vendor.class, deletedId));
+
+        vendorRepository.deleteByIdIn(Collections.singletonList(deletedId));
+        assertFalse(cache.contains(Vendor.class, deletedId));
+        assertEquals("updatedName", vendorRepository.findById(patchedId).get().getName());
+    }
+
+    // entities saved in this (never committed) transaction only reach the cache when they are read back.
+    private <T> List<T> loadIntoSecondLevelCache(Class<T> type) {
+        entityManager.clear();
+        return entityManager.createQuery("select e from " + type.getSimpleName() + " e order by e.id", type)
+                .getResultList();
+    }
+
     private Long getCustomerIdValue() {
         List<Customer> customers = customerRepository.findAll();
 
@@ -1,23 +1,46 @@
 package guru.springframework.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.api.v1.mapper.CustomerMapper;
+import guru.springframework.api.v1.model.CustomerBatchItemDTO;
 import guru.springframework.api.v1.model.CustomerDTO;
+import guru.springframework.api.v1.model.CustomerMultiGetDTO;
+import guru.springframework.api.v1.model.CustomerPageDTO;
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.cache.JsonResponseCache;
 import guru.springframework.controllers.v1.CustomerController;
 import guru.springframework.domain.Customer;
+import guru.springframework.domain.CustomerSummary;
 import guru.springframework.repositories.CustomerRepository;
+import guru.springframework.search.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,20 +57,36 @@ public class CustomerServiceImplTest {
 
     CustomerMapper customerMapper = CustomerMapper.INSTANCE;
 
+    JsonResponseCache customerJsonCache;
+
+    SearchIndex customerSearchIndex = new SearchIndex("customers");
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        customerService = new CustomerServiceImpl(customerMapper, customerRepository);
+        customerJsonCache = new JsonResponseCache("customers", new ObjectMapper().writerFor(CustomerDTO.class),
+                1024 * 1024, 60);
+        customerService = new CustomerServiceImpl(customerMapper, customerRepository, customerJsonCache,
+                new BatchLoader<>("customers", customerRepository::findAllById, Customer::getId, 100, 0,
+                        meterRegistry),
+                customerSearchIndex, 2, meterRegistry);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        customerSearchIndex.close();
     }
 
     @Test
     public void getAllCustomers() throws Exception {
         // given
-        List<Customer> customers = Arrays.asList(new Customer(), new Customer());
+        List<CustomerSummary> customers = Arrays.asList(getCustomerSummary(1L), getCustomerSummary(2L));
 
         // when
-        when(customerRepository.findAll()).thenReturn(customers);
+        when(customerRepository.findAllSummaries()).thenReturn(customers);
         List<CustomerDTO> customerDTOS = customerService.getAllCustomers();
 
         // then
@@ -55,6 +94,142 @@ public class CustomerServiceImplTest {
 
     }
 
+    @Test
+    public void getCustomerPage() throws Exception {
+        // given
+        List<CustomerSummary> customers = Arrays.asList(getCustomerSummary(3L), getCustomerSummary(4L),
+                getCustomerSummary(5L));
+
+        // when
+        when(customerRepository.findSummariesByIdGreaterThan(eq(2L), any(Pageable.class))).thenReturn(customers);
+        CustomerPageDTO customerPage = customerService.getCustomerPage(2L, 2);
+
+        // then
+        assertEquals(2, customerPage.getCustomers().size());
+        assertEquals(CustomerController.CUSTOMER_BASE_URL + "?limit=2&after=4", customerPage.getNextUrl());
+    }
+
+    @Test
+    public void getLastCustomerPage() throws Exception {
+        // given
+        List<CustomerSummary> customers = Arrays.asList(getCustomerSummary(3L), getCustomerSummary(4L));
+
+        // when
+        when(customerRepository.findSummariesByIdGreaterThan(anyLong(), any(Pageable.class))).thenReturn(customers);
+        CustomerPageDTO customerPage = customerService.getCustomerPage(null, 5);
+
+        // then
+        assertEquals(customers.size(), customerPage.getCustomers().size());
+        assertNull(customerPage.getNextUrl());
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void getCustomerPageRejectsAnEmptyLimit() throws Exception {
+        customerService.getCustomerPage(null, 0);
+    }
+
+    @Test
+    public void searchCustomers() throws Exception {
+        // given
+        List<CustomerSummary> customers = Arrays.asList(getCustomerSummary(3L), getCustomerSummary(4L),
+                getCustomerSummary(5L));
+
+        // when
+        when(customerRepository.searchByLastnameAndFirstname("Ko%", "J!_%", PageRequest.of(0, 3)))
+                .thenReturn(customers);
+        CustomerPageDTO customerPage = customerService.searchCustomers("Ko", "J_", null, 2);
+
+        // then
+        assertEquals(2, customerPage.getCustomers().size());
+        assertEquals(CustomerController.CUSTOMER_BASE_URL + "/search?lastname=Ko&firstname=J_"
+                        + "&afterLastname=" + LAST_NAME + "&afterFirstname=" + FIRST_NAME + "&afterId=4&size=2",
+                customerPage.getNextUrl());
+    }
+
+    @Test
+    public void searchCustomersAfterACursor() throws Exception {
+        // given
+        CustomerSummary after = getCustomerSummary(4L);
+
+        // when
+        when(customerRepository.searchByLastnameAfter("Ko%", LAST_NAME, FIRST_NAME, 4L, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(getCustomerSummary(5L)));
+        CustomerPageDTO customerPage = customerService.searchCustomers("Ko", null, after, 2);
+
+        // then
+        assertEquals(1, customerPage.getCustomers().size());
+        assertNull(customerPage.getNextUrl());
+        verify(customerRepository, never()).searchByLastname(any(), any());
+    }
+
+    @Test
+    public void searchCustomersCapsThePageSize() throws Exception {
+        // when
+        when(customerRepository.searchByLastname(eq("Ko%"), any(Pageable.class)))
+                .thenReturn(Arrays.asList(getCustomerSummary(3L)));
+        CustomerPageDTO customerPage = customerService.searchCustomers("Ko", null, null, Integer.MAX_VALUE);
+
+        // then
+        assertNull(customerPage.getNextUrl());
+        verify(customerRepository).searchByLastname("Ko%", PageRequest.of(0, CustomerServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    public void searchCustomersWithoutPrefix() throws Exception {
+        CustomerPageDTO customerPage = customerService.searchCustomers("", null, null, 20);
+
+        assertEquals(0, customerPage.getCustomers().size());
+        verify(customerRepository, never()).searchByLastname(any(), any());
+    }
+
+    @Test
+    public void prefixPatternEscapesWildcards() throws Exception {
+        assertEquals("a!%b!_c!!%", CustomerServiceImpl.prefixPattern("a%b_c!"));
+    }
+
+    @Test
+    public void searchCustomersByText() throws Exception {
+        // given
+        CustomerSummary bob = new CustomerSummary(2L, "Bob", "Franco");
+        when(customerRepository.findSummariesByIdGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(getCustomerSummary(1L), bob));
+        customerService.rebuildSearchIndex();
+
+        // when
+        when(customerRepository.findSummariesByIdIn(Arrays.asList(2L))).thenReturn(Arrays.asList(bob));
+        List<CustomerDTO> customerDTOS = customerService.searchCustomersByText("franko", 10);
+
+        // then
+        assertEquals(1, customerDTOS.size());
+        assertEquals("Franco", customerDTOS.get(0).getLastname());
+    }
+
+    @Test
+    public void deletedCustomersAreRemovedFromTheSearchIndex() throws Exception {
+        // given
+        when(customerRepository.save(any(Customer.class))).thenReturn(getCustomer(ID));
+        customerService.createNewCustomer(new CustomerDTO());
+
+        // when
+        customerService.deleteCustomerById(ID);
+        customerSearchIndex.refresh();
+
+        // then
+        assertEquals(0, customerSearchIndex.search(LAST_NAME, 10).size());
+    }
+
+    private Customer getCustomer(Long id) {
+        Customer customer = new Customer();
+        customer.setFirstname(FIRST_NAME);
+        customer.setLastname(LAST_NAME);
+        customer.setId(id);
+        return customer;
+    }
+
+    private CustomerSummary getCustomerSummary(Long id) {
+        return new CustomerSummary(id, FIRST_NAME, LAST_NAME);
+    }
+
     @Test
     public void getCustomerById() throws Exception {
 
@@ -65,7 +240,7 @@ public class CustomerServiceImplTest {
         customer.setId(ID);
 
         // when
-        when(customerRepository.findById(anyLong())).thenReturn(Optional.ofNullable(customer));
+        when(customerRepository.findAllById(anyList())).thenReturn(Arrays.asList(customer));
 
         // then
         CustomerDTO customerDTO = customerService.getCustomerById(ID);
@@ -73,13 +248,74 @@ public class CustomerServiceImplTest {
         assertEquals(LAST_NAME, customerDTO.getLastname());
     }
 
+    @Test
+    public void getCustomersByIdsKeepsRequestOrder() throws Exception {
+        // when
+        when(customerRepository.findSummariesByIdIn(anyList()))
+                .thenReturn(Arrays.asList(getCustomerSummary(1L), getCustomerSummary(3L)));
+        CustomerMultiGetDTO customers = customerService.getCustomersByIds(Arrays.asList(3L, 2L, 1L, 3L));
+
+        // then
+        verify(customerRepository, times(1)).findSummariesByIdIn(anyList());
+        assertEquals(4, customers.getCustomers().size());
+        assertEquals(Long.valueOf(3L), customers.getCustomers().get(0).getId());
+        assertNull(customers.getCustomers().get(1));
+        assertEquals(Long.valueOf(1L), customers.getCustomers().get(2).getId());
+        assertEquals(Long.valueOf(3L), customers.getCustomers().get(3).getId());
+        assertEquals(Arrays.asList(2L), customers.getNotFound());
+    }
+
+    @Test
+    public void getCustomersByIdsInChunks() throws Exception {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for(long id = 1; id <= CustomerServiceImpl.ID_CHUNK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+
+        // when
+        when(customerRepository.findSummariesByIdIn(anyList())).thenReturn(new ArrayList<>());
+        CustomerMultiGetDTO customers = customerService.getCustomersByIds(ids);
+
+        // then
+        verify(customerRepository, times(2)).findSummariesByIdIn(anyList());
+        assertEquals(ids, customers.getNotFound());
+    }
+
+    @Test
+    public void getCustomerJsonByIdIsCachedUntilSaved() throws Exception {
+        // given
+        Customer customer = getCustomer(ID);
+
+        // when
+        when(customerRepository.findAllById(anyList())).thenReturn(Arrays.asList(customer));
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        CachedJson customerJson = customerService.getCustomerJsonById(ID);
+        CachedJson cachedCustomerJson = customerService.getCustomerJsonById(ID);
+        customerService.saveCustomerByDTO(ID, new CustomerDTO());
+        CachedJson reloadedCustomerJson = customerService.getCustomerJsonById(ID);
+
+        // then
+        assertSame(customerJson, cachedCustomerJson);
+        assertNotSame(customerJson, reloadedCustomerJson);
+        assertEquals(customerJson.getETag(), reloadedCustomerJson.getETag());
+        verify(customerRepository, times(2)).findAllById(Arrays.asList(ID));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getCustomerJsonByNonExistingId() throws Exception {
+        when(customerRepository.findAllById(anyList())).thenReturn(new ArrayList<>());
+
+        customerService.getCustomerJsonById(ID);
+    }
+
     @Test
     public void createNewCustomer() throws Exception {
         // given
         CustomerDTO customerDTO = new CustomerDTO();
         customerDTO.setFirstname(FIRST_NAME);
         customerDTO.setLastname(LAST_NAME);
-        customerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + ID);
+        customerDTO.setId(ID);
 
         Customer savedCustomer = new Customer();
         savedCustomer.setFirstname(FIRST_NAME);
@@ -93,7 +329,150 @@ public class CustomerServiceImplTest {
         // then
         assertEquals(customerDTO.getFirstname(), savedCustomerDTO.getFirstname());
         assertEquals(customerDTO.getLastname(), savedCustomerDTO.getLastname());
-        assertEquals(customerDTO.getCustomer_url(), savedCustomerDTO.getCustomer_url());
+        assertEquals(ID, savedCustomerDTO.getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createNewCustomersInChunks() throws Exception {
+        // given
+        List<CustomerDTO> customerDTOS = Arrays.asList(new CustomerDTO(), new CustomerDTO(), new CustomerDTO());
+
+        // when
+        when(customerRepository.saveAll(anyList()))
+                .thenReturn(Arrays.asList(getCustomer(1L), getCustomer(2L)))
+                .thenReturn(Arrays.asList(getCustomer(3L)));
+        List<CustomerBatchItemDTO> results = customerService.createNewCustomers(customerDTOS);
+
+        // then
+        verify(customerRepository, times(2)).saveAll(anyList());
+        assertEquals(3, results.size());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(201, results.get(2).getStatus());
+        assertEquals(Long.valueOf(3L), results.get(2).getCustomer().getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createNewCustomersReportsFailedItems() throws Exception {
+        // given
+        CustomerDTO invalidCustomerDTO = new CustomerDTO();
+        invalidCustomerDTO.setFirstname("invalid");
+        List<CustomerDTO> customerDTOS = Arrays.asList(new CustomerDTO(), invalidCustomerDTO);
+
+        // when
+        when(customerRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("chunk failed"));
+        when(customerRepository.save(any(Customer.class))).thenAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            if("invalid".equals(customer.getFirstname())) {
+                throw new DataIntegrityViolationException("invalid customer");
+            }
+            return getCustomer(1L);
+        });
+        List<CustomerBatchItemDTO> results = customerService.createNewCustomers(customerDTOS);
+
+        // then
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("invalid customer", results.get(1).getError());
+    }
+
+    @Test(expected = DataAccessResourceFailureException.class)
+    @SuppressWarnings("unchecked")
+    public void createNewCustomersFailsOnInfrastructureErrors() throws Exception {
+        // when
+        when(customerRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        customerService.createNewCustomers(Arrays.asList(new CustomerDTO(), new CustomerDTO()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchChunkSizeMustBePositive() throws Exception {
+        new CustomerServiceImpl(customerMapper, customerRepository, customerJsonCache,
+                new BatchLoader<>("customers", customerRepository::findAllById, Customer::getId, 100, 0,
+                        meterRegistry),
+                customerSearchIndex, 0, meterRegistry);
+    }
+
+    @Test
+    public void getAllCustomersAsync() throws Exception {
+        // given
+        List<CustomerSummary> customers = Arrays.asList(getCustomerSummary(1L), getCustomerSummary(2L));
+
+        // when
+        when(customerRepository.findAllSummaries()).thenReturn(customers);
+        List<CustomerDTO> customerDTOS = customerService.getAllCustomersAsync().get();
+
+        // then
+        assertEquals(customers.size(), customerDTOS.size());
+    }
+
+    @Test
+    public void patchCustomerWithAllFields() throws Exception {
+        // given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Jim");
+        customerDTO.setLastname("Weston");
+
+        // when
+        when(customerRepository.updateNamesById(eq(1L), eq("Jim"), eq("Weston"), any())).thenReturn(1);
+        CustomerDTO patchedCustomerDTO = customerService.patchCustomer(1L, customerDTO);
+
+        // then
+        verify(customerRepository, never()).findById(anyLong());
+        verify(customerRepository, never()).save(any(Customer.class));
+        assertEquals("Weston", patchedCustomerDTO.getLastname());
+        assertEquals(Long.valueOf(1L), patchedCustomerDTO.getId());
+    }
+
+    @Test
+    public void patchCustomerReadsBackMissingFields() throws Exception {
+        // given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setFirstname("Jim");
+        Customer patchedCustomer = getCustomer(1L);
+        patchedCustomer.setFirstname("Jim");
+        patchedCustomer.setLastname("Weston");
+
+        // when
+        when(customerRepository.updateFirstnameById(eq(1L), eq("Jim"), any())).thenReturn(1);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(patchedCustomer));
+        CustomerDTO patchedCustomerDTO = customerService.patchCustomer(1L, customerDTO);
+
+        // then
+        verify(customerRepository, never()).updateNamesById(anyLong(), any(), any(), any());
+        verify(customerRepository, never()).save(any(Customer.class));
+        assertEquals("Jim", patchedCustomerDTO.getFirstname());
+        assertEquals("Weston", patchedCustomerDTO.getLastname());
+    }
+
+    @Test
+    public void emptyPatchDoesNotUpdate() throws Exception {
+        // given
+        Customer customer = getCustomer(1L);
+
+        // when
+        when(customerRepository.findAllById(anyList())).thenReturn(Arrays.asList(customer));
+        CustomerDTO patchedCustomerDTO = customerService.patchCustomer(1L, new CustomerDTO());
+
+        // then
+        verify(customerRepository, never()).updateNamesById(anyLong(), any(), any(), any());
+        verify(customerRepository, never()).updateFirstnameById(anyLong(), any(), any());
+        verify(customerRepository, never()).updateLastnameById(anyLong(), any(), any());
+        assertEquals(customer.getLastname(), patchedCustomerDTO.getLastname());
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void patchNonExistingCustomer() throws Exception {
+        // given
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setLastname("Weston");
+
+        // when
+        when(customerRepository.updateLastnameById(anyLong(), any(), any())).thenReturn(0);
+
+        // then
+        customerService.patchCustomer(1L, customerDTO);
     }
 
     @Test
@@ -102,7 +481,7 @@ public class CustomerServiceImplTest {
         CustomerDTO customerDTO = new CustomerDTO();
         customerDTO.setFirstname(FIRST_NAME);
         customerDTO.setLastname(LAST_NAME);
-        customerDTO.setCustomer_url(CustomerController.CUSTOMER_BASE_URL + "/" + ID);
+        customerDTO.setId(ID);
 
         Customer savedCustomer = new Customer();
         savedCustomer.setLastname(LAST_NAME);
@@ -116,7 +495,14 @@ public class CustomerServiceImplTest {
         // then
         assertEquals(customerDTO.getFirstname(), savedCustomerDTO.getFirstname());
         assertEquals(customerDTO.getLastname(), savedCustomerDTO.getLastname());
-        assertEquals(customerDTO.getCustomer_url(), savedCustomerDTO.getCustomer_url());
+        assertEquals(ID, savedCustomerDTO.getId());
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void saveCustomerByDTONonExistingId() throws Exception {
+        when(customerRepository.findVersionById(anyLong())).thenReturn(null);
+
+        customerService.saveCustomerByDTO(ID, new CustomerDTO());
     }
 
     @Test
@@ -0,0 +1,121 @@
+package guru.springframework.services;
+
+import guru.springframework.api.v1.model.VendorDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+
+public class ReactiveVendorServiceImplTest {
+
+    private static final int VENDORS = 1000;
+
+    @Mock
+    VendorService vendorService;
+
+    Scheduler jdbcScheduler;
+
+    ReactiveVendorService reactiveVendorService;
+
+    // how many vendors the (mocked) export cursor has read so far.
+    AtomicInteger read = new AtomicInteger();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        jdbcScheduler = Schedulers.newSingle("jdbc-test");
+        reactiveVendorService = new ReactiveVendorServiceImpl(vendorService, jdbcScheduler);
+
+        willAnswer(invocation -> {
+            Consumer<VendorDTO> vendorConsumer = invocation.getArgument(0);
+            for(long id = 1; id <= VENDORS; id++) {
+                read.incrementAndGet();
+                VendorDTO vendorDTO = new VendorDTO();
+                vendorDTO.setId(id);
+                vendorConsumer.accept(vendorDTO);
+            }
+            return null;
+        }).given(vendorService).exportVendors(any(Consumer.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        jdbcScheduler.dispose();
+    }
+
+    @Test
+    public void exportReadsOnlyWhatASlowSubscriberRequests() throws Exception {
+        // given
+        SlowSubscriber subscriber = new SlowSubscriber();
+
+        // when
+        reactiveVendorService.exportVendors().subscribe(subscriber);
+        Thread.sleep(200);
+
+        // then
+        assertEquals(1, subscriber.received.size());
+        // the vendor after the requested one may already be read, the rest of the table is not.
+        assertTrue(read.get() <= 2);
+
+        subscriber.request(VENDORS);
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(VENDORS, subscriber.received.size());
+    }
+
+    @Test
+    public void exportStopsReadingWhenCancelled() throws Exception {
+        // given
+        SlowSubscriber subscriber = new SlowSubscriber();
+
+        // when
+        reactiveVendorService.exportVendors().subscribe(subscriber);
+        Thread.sleep(200);
+        subscriber.cancel();
+        Thread.sleep(200);
+
+        // then
+        assertEquals(1, subscriber.received.size());
+        assertTrue(read.get() <= 2);
+    }
+
+    // requests a single vendor, the test asks for more through request().
+    private static class SlowSubscriber extends BaseSubscriber<VendorDTO> {
+
+        final List<VendorDTO> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(VendorDTO vendorDTO) {
+            received.add(vendorDTO);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed.countDown();
+        }
+    }
+}
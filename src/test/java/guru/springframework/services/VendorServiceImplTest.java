@@ -1,25 +1,43 @@
 package guru.springframework.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.api.v1.mapper.VendorMapper;
 import guru.springframework.api.v1.model.VendorDTO;
+import guru.springframework.api.v1.model.VendorMultiGetDTO;
+import guru.springframework.cache.BatchLoader;
+import guru.springframework.cache.CachedJson;
+import guru.springframework.cache.JsonResponseCache;
 import guru.springframework.controllers.v1.VendorController;
 import guru.springframework.domain.Vendor;
+import guru.springframework.domain.VendorSummary;
 import guru.springframework.repositories.VendorRepository;
+import guru.springframework.search.SearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,47 +54,106 @@ public class VendorServiceImplTest {
 
     VendorMapper vendorMapper = VendorMapper.INSTANCE;
 
+    JsonResponseCache vendorJsonCache;
+
+    SearchIndex vendorSearchIndex = new SearchIndex("vendors");
+
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
 
-        vendorService = new VendorServiceImpl(vendorMapper, vendorRepository);
+        vendorJsonCache = new JsonResponseCache("vendors", new ObjectMapper().writerFor(VendorDTO.class),
+                1024 * 1024, 60);
+        vendorService = new VendorServiceImpl(vendorMapper, vendorRepository, vendorJsonCache,
+                new BatchLoader<>("vendors", vendorRepository::findAllById, Vendor::getId, 100, 0,
+                        new SimpleMeterRegistry()),
+                vendorSearchIndex);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        vendorSearchIndex.close();
     }
 
     @Test
     public void getAllVendors() throws Exception {
         // given
-        List<Vendor> vendors = Arrays.asList(new Vendor(), new Vendor());
+        List<VendorSummary> vendors = Arrays.asList(new VendorSummary(ID, NAME), new VendorSummary(2L, NAME_MODIFIED));
 
         // when
-        when(vendorRepository.findAll()).thenReturn(vendors);
+        when(vendorRepository.findAllSummaries()).thenReturn(vendors);
         List<VendorDTO> vendorsList = vendorService.getAllVendors();
 
         // then
         assertEquals(vendors.size(), vendorsList.size());
     }
 
+    @Test
+    public void exportVendors() throws Exception {
+        // given
+        VendorSummary vendor = new VendorSummary(ID, NAME);
+        VendorSummary vendorTwo = new VendorSummary(2L, NAME_MODIFIED);
+        List<VendorDTO> exportedVendors = new ArrayList<>();
+
+        // when
+        when(vendorRepository.streamAllSummaries()).thenReturn(Stream.of(vendor, vendorTwo));
+        vendorService.exportVendors(exportedVendors::add);
+
+        // then
+        assertEquals(2, exportedVendors.size());
+        assertEquals(Long.valueOf(2L), exportedVendors.get(1).getId());
+    }
+
     @Test
     public void getVendorById() throws Exception {
         //given
         Vendor vendor = getVendor(NAME, ID);
 
         // when
-        when(vendorRepository.findById(anyLong())).thenReturn(Optional.ofNullable(vendor));
+        when(vendorRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(vendor));
 
         // then
         VendorDTO vendorDTO = vendorService.getVendorById(ID);
         assertEquals(vendor.getName(), vendorDTO.getName());
     }
 
+    @Test
+    public void getVendorJsonById() throws Exception {
+        //given
+        Vendor vendor = getVendor(NAME, ID);
+
+        // when
+        when(vendorRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(vendor));
+        CachedJson vendorJson = vendorService.getVendorJsonById(ID);
+
+        // then
+        assertEquals("{\"name\":\"" + NAME + "\",\"vendor_url\":\"" + VendorController.VENDOR_BASE_URL + "/" + ID + "\"}",
+                new String(vendorJson.getBytes(), "UTF-8"));
+        assertSame(vendorJson, vendorService.getVendorJsonById(ID));
+        then(vendorRepository).should(times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    public void deleteVendorByIdInvalidatesJsonCache() throws Exception {
+        // given
+        given(vendorRepository.findAllById(anyIterable())).willReturn(Arrays.asList(getVendor(NAME, ID)));
+        vendorService.getVendorJsonById(ID);
+
+        // when
+        vendorService.deleteVendorById(ID);
+
+        // then
+        assertNull(vendorJsonCache.getResponses().getIfPresent(ID));
+    }
+
     @Test(expected = ResourceNotFoundException.class)
     public void getVendorByNonExistingId() throws Exception {
         // when
-        given(vendorRepository.findById(anyLong())).willReturn(Optional.empty());
+        given(vendorRepository.findAllById(anyIterable())).willReturn(new ArrayList<>());
         vendorService.getVendorById(ID);
 
         // then
-        then(vendorRepository).should(times(1)).findById(anyLong());
+        then(vendorRepository).should(times(1)).findAllById(anyIterable());
 
     }
 
@@ -92,7 +169,7 @@ public class VendorServiceImplTest {
 
         // then
         assertEquals(vendorDTO.getName(), savedVendorDTO.getName());
-        assertEquals(vendorDTO.getVendorUrl(), savedVendorDTO.getVendorUrl());
+        assertEquals(vendorDTO.getId(), savedVendorDTO.getId());
     }
 
     @Test
@@ -108,7 +185,28 @@ public class VendorServiceImplTest {
 
         // then
         assertEquals(vendorDTO.getName(), savedVendorDTO.getName());
-        assertEquals(vendorDTO.getVendorUrl(), savedVendorDTO.getVendorUrl());
+        assertEquals(vendorDTO.getId(), savedVendorDTO.getId());
+    }
+
+    @Test
+    public void updateVendorKeepsCurrentVersion() throws Exception {
+        // given
+        VendorDTO vendorDTO = getVendorDTO(NAME, ID);
+        given(vendorRepository.findVersionById(anyLong())).willReturn(4L);
+        given(vendorRepository.save(any(Vendor.class))).willReturn(getVendor(NAME, ID));
+
+        // when
+        vendorService.updateVendor(ID, vendorDTO);
+
+        // then
+        then(vendorRepository).should().save(argThat(vendor -> Long.valueOf(4L).equals(vendor.getVersion())));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void updateNonExistingVendor() throws Exception {
+        given(vendorRepository.findVersionById(anyLong())).willReturn(null);
+
+        vendorService.updateVendor(ID, getVendorDTO(NAME, ID));
     }
 
     @Test
@@ -127,7 +225,7 @@ public class VendorServiceImplTest {
         // then
         then(vendorRepository).should().save(any(Vendor.class));
         then(vendorRepository).should(times(1)).findById(anyLong());
-        assertEquals(vendorDTO.getVendorUrl(), savedVendorDTO.getVendorUrl());
+        assertEquals(vendorDTO.getId(), savedVendorDTO.getId());
     }
 
     @Test
@@ -144,6 +242,105 @@ public class VendorServiceImplTest {
 //        verify(vendorRepository, times(1)).deleteById(anyLong());
     }
 
+    @Test
+    public void getVendorsByIds() throws Exception {
+        // given
+        given(vendorRepository.findSummariesByIdIn(anyCollection()))
+                .willReturn(Arrays.asList(new VendorSummary(ID, NAME)));
+
+        // when
+        VendorMultiGetDTO vendors = vendorService.getVendorsByIds(Arrays.asList(2L, ID));
+
+        // then
+        assertNull(vendors.getVendors().get(0));
+        assertEquals(NAME, vendors.getVendors().get(1).getName());
+        assertEquals(Long.valueOf(ID), vendors.getVendors().get(1).getId());
+        assertEquals(Arrays.asList(2L), vendors.getNotFound());
+    }
+
+    @Test
+    public void deleteVendorsByIds() throws Exception {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for(long id = 1; id <= VendorServiceImpl.BULK_CHUNK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        ids.add(ID); // duplicates are only deleted once.
+        given(vendorRepository.findAllById(anyIterable())).willReturn(Arrays.asList(getVendor(NAME, ID)));
+        vendorService.getVendorJsonById(ID);
+
+        // when
+        given(vendorRepository.deleteByIdIn(anyCollection())).willReturn(VendorServiceImpl.BULK_CHUNK_SIZE, 1);
+        int deleted = vendorService.deleteVendorsByIds(ids);
+
+        // then
+        assertEquals(VendorServiceImpl.BULK_CHUNK_SIZE + 1, deleted);
+        then(vendorRepository).should(times(2)).deleteByIdIn(anyCollection());
+        then(vendorRepository).should(never()).deleteById(anyLong());
+        assertEquals(0, vendorJsonCache.getResponses().size());
+    }
+
+    @Test
+    public void patchVendors() throws Exception {
+        // given
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName(NAME_MODIFIED);
+
+        // when
+        given(vendorRepository.findIdsByIdIn(Arrays.asList(ID, 2L))).willReturn(Arrays.asList(ID, 2L));
+        given(vendorRepository.updateNameByIdIn(any(), any(), anyCollection())).willReturn(2);
+        int updated = vendorService.patchVendors(Arrays.asList(ID, 2L), vendorDTO);
+
+        // then
+        assertEquals(2, updated);
+        then(vendorRepository).should().updateNameByIdIn(argThat(NAME_MODIFIED::equals), any(),
+                argThat(ids -> ids.size() == 2));
+        then(vendorRepository).should(never()).findById(anyLong());
+    }
+
+    @Test
+    public void patchVendorsOnlyIndexesExistingVendors() throws Exception {
+        // given
+        VendorDTO vendorDTO = new VendorDTO();
+        vendorDTO.setName(NAME_MODIFIED);
+
+        // when
+        given(vendorRepository.findIdsByIdIn(Arrays.asList(ID, 99L))).willReturn(Arrays.asList(ID));
+        given(vendorRepository.updateNameByIdIn(any(), any(), anyCollection())).willReturn(1);
+        vendorService.patchVendors(Arrays.asList(ID, 99L), vendorDTO);
+        vendorSearchIndex.refresh();
+
+        // then
+        then(vendorRepository).should().updateNameByIdIn(any(), any(), eq(Arrays.asList(ID)));
+        assertEquals(Arrays.asList(ID), vendorSearchIndex.search("modified", 10));
+    }
+
+    @Test
+    public void patchVendorsWithoutChanges() throws Exception {
+        // when
+        int updated = vendorService.patchVendors(Arrays.asList(ID, 2L), new VendorDTO());
+
+        // then
+        assertEquals(0, updated);
+        then(vendorRepository).should(never()).updateNameByIdIn(any(), any(), anyCollection());
+    }
+
+    @Test
+    public void searchVendorsByText() throws Exception {
+        // given
+        List<VendorSummary> vendors = Arrays.asList(new VendorSummary(ID, NAME), new VendorSummary(2L, "Dell Solutions"));
+        given(vendorRepository.findSummariesByIdGreaterThan(eq(0L), any(Pageable.class))).willReturn(vendors);
+        vendorService.rebuildSearchIndex();
+
+        // when
+        given(vendorRepository.findSummariesByIdIn(Arrays.asList(ID, 2L))).willReturn(vendors);
+        List<VendorDTO> vendorDTOS = vendorService.searchVendorsByText("coca solution", 10);
+
+        // then the vendor matching both words ranks first.
+        assertEquals(2, vendorDTOS.size());
+        assertEquals(NAME, vendorDTOS.get(0).getName());
+    }
+
     private Vendor getVendor(String name, Long id) {
         Vendor vendor = new Vendor();
         vendor.setName(name);
@@ -154,7 +351,7 @@ public class VendorServiceImplTest {
     private VendorDTO getVendorDTO(String name, Long id) {
         VendorDTO vendorDTO = new VendorDTO();
         vendorDTO.setName(name);
-        vendorDTO.setVendorUrl(VendorController.VENDOR_BASE_URL + "/" + id);
+        vendorDTO.setId(id);
         return vendorDTO;
     }
 
@@ -1,16 +1,117 @@
 package guru.springframework.spring5mvcrest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.controllers.v1.CustomerController;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@AutoConfigureMockMvc
 public class Spring5MvcRestApplicationTests {
 
+	@Autowired
+	HttpMessageConverters httpMessageConverters;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
 	@Test
 	public void contextLoads() {
 	}
 
+	@Test
+	public void binaryConvertersComeAfterJson() {
+		List<HttpMessageConverter<?>> converters = httpMessageConverters.getConverters();
+
+		int json = indexOf(converters, MappingJackson2HttpMessageConverter.class);
+		assertTrue(json < indexOf(converters, MappingJackson2SmileHttpMessageConverter.class));
+		assertTrue(json < indexOf(converters, MappingJackson2CborHttpMessageConverter.class));
+	}
+
+	@Test
+	public void binaryConvertersUseBootsObjectMapperSettings() {
+		for(HttpMessageConverter<?> converter : httpMessageConverters.getConverters()) {
+			if(converter instanceof MappingJackson2SmileHttpMessageConverter
+					|| converter instanceof MappingJackson2CborHttpMessageConverter) {
+				ObjectMapper objectMapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+				// Boot's default, a plain Jackson2ObjectMapperBuilder would keep it enabled.
+				assertFalse(objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+				// JacksonConfig.tune(), applied through Boot's builder customizers.
+				assertFalse(objectMapper.isEnabled(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+			}
+		}
+	}
+
+	@Test
+	public void primaryObjectMapperStaysJson() {
+		// the binary converters are built from the same (singleton) builder, they must not change its factory.
+		assertEquals("JSON", objectMapper.getFactory().getFormatName());
+		for(HttpMessageConverter<?> converter : httpMessageConverters.getConverters()) {
+			if(converter instanceof MappingJackson2HttpMessageConverter) {
+				assertEquals("JSON", ((MappingJackson2HttpMessageConverter) converter).getObjectMapper()
+						.getFactory().getFormatName());
+			}
+		}
+	}
+
+	@Test
+	public void listsAreServedAsSmileAndCbor() throws Exception {
+		MediaType smile = new MediaType("application", "x-jackson-smile");
+		MediaType cbor = new MediaType("application", "cbor");
+
+		JsonNode smileBody = new ObjectMapper(new SmileFactory()).readTree(getCustomers(smile));
+		JsonNode cborBody = new ObjectMapper(new CBORFactory()).readTree(getCustomers(cbor));
+
+		String customerUrl = CustomerController.CUSTOMER_BASE_URL + "/";
+		assertTrue(smileBody.at("/customers/0/customer_url").asText().startsWith(customerUrl));
+		assertTrue(cborBody.at("/customers/0/customer_url").asText().startsWith(customerUrl));
+	}
+
+	private byte[] getCustomers(MediaType mediaType) throws Exception {
+		MvcResult result = mockMvc.perform(get(CustomerController.CUSTOMER_BASE_URL).accept(mediaType))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(mediaType))
+				.andReturn();
+		return result.getResponse().getContentAsByteArray();
+	}
+
+	private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+		for(int i = 0; i < converters.size(); i++) {
+			if(converters.get(i).getClass() == type) {
+				return i;
+			}
+		}
+		throw new AssertionError(type.getSimpleName() + " is not registered");
+	}
+
 }
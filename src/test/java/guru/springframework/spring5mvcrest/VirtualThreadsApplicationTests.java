@@ -0,0 +1,55 @@
+package guru.springframework.spring5mvcrest;
+
+import guru.springframework.config.VirtualThreadConfig;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * Starts the app with the virtual-threads profile on a real Tomcat, skipped on runtimes older than Java 21.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(VirtualThreadConfig.VIRTUAL_THREADS_PROFILE)
+public class VirtualThreadsApplicationTests {
+
+	@Autowired
+	ServletWebServerApplicationContext context;
+
+	@Autowired
+	ExecutorService virtualThreadExecutor;
+
+	@BeforeClass
+	public static void needsVirtualThreads() {
+		boolean virtualThreads;
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			virtualThreads = true;
+		} catch (NoSuchMethodException e) {
+			virtualThreads = false;
+		}
+		Assume.assumeTrue(virtualThreads);
+	}
+
+	@Test
+	public void contextLoadsWithTomcatOnVirtualThreads() {
+		Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+
+		assertSame(virtualThreadExecutor, ((AbstractProtocol<?>) connector.getProtocolHandler()).getExecutor());
+	}
+
+}